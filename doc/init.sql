@@ -37,12 +37,14 @@ CREATE TABLE `charging_stations` (
                                      `parking_fee` VARCHAR(128) NULL COMMENT '停车费说明',
                                      `opening_hours` VARCHAR(128) NULL COMMENT '营业时间',
                                      `station_status` TINYINT NOT NULL DEFAULT 2 COMMENT '充电站状态：0-未知，1-建设中，2-运营中，3-关闭下线',
+                                     `location` POINT SRID 4326 AS (ST_SRID(POINT(IFNULL(`longitude`, 0), IFNULL(`latitude`, 0)), 4326)) STORED NOT NULL COMMENT '坐标点（由经纬度生成）',
                                      `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
                                      `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
                                      PRIMARY KEY (`id`),
                                      UNIQUE KEY `uk_station_id` (`station_id`),
                                      KEY `idx_location` (`province`, `city`, `district`),
-                                     KEY `idx_status` (`station_status`)
+                                     KEY `idx_status` (`station_status`),
+                                     SPATIAL KEY `idx_location_point` (`location`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='充电站表';
 
 -- 充电桩表（基于现有ConnectorInfo扩展）
@@ -66,6 +68,25 @@ CREATE TABLE `charging_connectors` (
                                        KEY `idx_status` (`status`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='充电桩表';
 
+-- 充电站汇总表（由充电桩数据增量维护）
+CREATE TABLE `station_summary` (
+                                   `station_id` VARCHAR(32) NOT NULL COMMENT '充电站ID',
+                                   `total_connectors` INT NOT NULL DEFAULT 0 COMMENT '充电桩总数',
+                                   `idle_connectors` INT NOT NULL DEFAULT 0 COMMENT '空闲充电桩数',
+                                   `charging_connectors` INT NOT NULL DEFAULT 0 COMMENT '充电中充电桩数',
+                                   `fault_connectors` INT NOT NULL DEFAULT 0 COMMENT '故障充电桩数',
+                                   `dc_connectors` INT NOT NULL DEFAULT 0 COMMENT '直流充电桩数',
+                                   `ac_connectors` INT NOT NULL DEFAULT 0 COMMENT '交流充电桩数',
+                                   `idle_dc_connectors` INT NOT NULL DEFAULT 0 COMMENT '空闲直流充电桩数',
+                                   `idle_ac_connectors` INT NOT NULL DEFAULT 0 COMMENT '空闲交流充电桩数',
+                                   `min_electricity_fee` DECIMAL(8,4) NULL COMMENT '最低电费(元/度)',
+                                   `max_electricity_fee` DECIMAL(8,4) NULL COMMENT '最高电费(元/度)',
+                                   `max_rated_power` DECIMAL(8,2) NULL COMMENT '最大额定功率(kW)',
+                                   `capabilities` INT NOT NULL DEFAULT 0 COMMENT '能力位：1-有直流，2-有交流，4-有空闲直流，8-有空闲交流',
+                                   `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+                                   PRIMARY KEY (`station_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='充电站汇总表';
+
 -- 充电订单表
 CREATE TABLE `charge_orders` (
                                  `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '订单ID',
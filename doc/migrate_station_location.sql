@@ -0,0 +1,13 @@
+-- 充电站坐标点空间索引迁移（MySQL 8.0.12+）
+-- location 为由经纬度生成的存储列，新增和更新充电站时由数据库自动维护，
+-- 添加列时会为已有数据回填坐标点
+
+USE `energy_db`;
+
+ALTER TABLE `charging_stations`
+    ADD COLUMN `location` POINT SRID 4326
+        AS (ST_SRID(POINT(IFNULL(`longitude`, 0), IFNULL(`latitude`, 0)), 4326)) STORED NOT NULL
+        COMMENT '坐标点（由经纬度生成）' AFTER `station_status`;
+
+ALTER TABLE `charging_stations`
+    ADD SPATIAL INDEX `idx_location_point` (`location`);
@@ -0,0 +1,35 @@
+-- 充电站汇总表迁移
+-- 汇总表为空时应用启动会从充电桩表重新汇总并写入，也可以执行下面的语句手工回填
+
+USE `energy_db`;
+
+CREATE TABLE `station_summary` (
+                                   `station_id` VARCHAR(32) NOT NULL COMMENT '充电站ID',
+                                   `total_connectors` INT NOT NULL DEFAULT 0 COMMENT '充电桩总数',
+                                   `idle_connectors` INT NOT NULL DEFAULT 0 COMMENT '空闲充电桩数',
+                                   `charging_connectors` INT NOT NULL DEFAULT 0 COMMENT '充电中充电桩数',
+                                   `fault_connectors` INT NOT NULL DEFAULT 0 COMMENT '故障充电桩数',
+                                   `dc_connectors` INT NOT NULL DEFAULT 0 COMMENT '直流充电桩数',
+                                   `ac_connectors` INT NOT NULL DEFAULT 0 COMMENT '交流充电桩数',
+                                   `idle_dc_connectors` INT NOT NULL DEFAULT 0 COMMENT '空闲直流充电桩数',
+                                   `idle_ac_connectors` INT NOT NULL DEFAULT 0 COMMENT '空闲交流充电桩数',
+                                   `min_electricity_fee` DECIMAL(8,4) NULL COMMENT '最低电费(元/度)',
+                                   `max_electricity_fee` DECIMAL(8,4) NULL COMMENT '最高电费(元/度)',
+                                   `max_rated_power` DECIMAL(8,2) NULL COMMENT '最大额定功率(kW)',
+                                   `capabilities` INT NOT NULL DEFAULT 0 COMMENT '能力位：1-有直流，2-有交流，4-有空闲直流，8-有空闲交流',
+                                   `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+                                   PRIMARY KEY (`station_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='充电站汇总表';
+
+INSERT INTO `station_summary` (`station_id`, `total_connectors`, `idle_connectors`, `charging_connectors`,
+                               `fault_connectors`, `dc_connectors`, `ac_connectors`, `idle_dc_connectors`,
+                               `idle_ac_connectors`, `min_electricity_fee`, `max_electricity_fee`,
+                               `max_rated_power`, `capabilities`)
+SELECT `station_id`, COUNT(*), SUM(`status` = 1), SUM(`status` = 2), SUM(`status` = 255),
+       SUM(`connector_type` = 1), SUM(`connector_type` = 2),
+       SUM(`connector_type` = 1 AND `status` = 1), SUM(`connector_type` = 2 AND `status` = 1),
+       MIN(`electricity_fee`), MAX(`electricity_fee`), MAX(`rated_power`),
+       MAX(`connector_type` = 1) + MAX(`connector_type` = 2) * 2
+           + MAX(`connector_type` = 1 AND `status` = 1) * 4 + MAX(`connector_type` = 2 AND `status` = 1) * 8
+FROM `charging_connectors`
+GROUP BY `station_id`;
@@ -0,0 +1,113 @@
+package com.pdsu.charge_palteform.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pdsu.charge_palteform.entity.StationChange;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 充电站数据变化广播
+ * <p>
+ * 各实例的充电桩状态存储、汇总信息等内存状态相互独立，执行同步的实例在数据库提交并更新本地状态后，
+ * 通过Redis频道发布变化内容，其他实例收到后更新各自的内存状态，本实例发布的通知不重复处理。
+ * 通知丢失（如Redis短暂不可用）时，接收方在相关数据下次变化或重启与数据库对账后恢复一致。
+ * 启动时先订阅再加载内存数据，加载期间收到的通知暂存，加载完成后再依次处理。
+ */
+@Slf4j
+@Component
+public class StationChangeBroadcaster {
+
+    private static final String CHANNEL = "station:changed";
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final List<Consumer<StationChange>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 内存数据加载完成前收到的通知
+     */
+    private final List<StationChange> pending = new ArrayList<>();
+    private boolean dispatching = false;
+
+    public StationChangeBroadcaster(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+                                    RedisMessageListenerContainer listenerContainer) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        listenerContainer.addMessageListener((message, pattern) -> onMessage(new String(message.getBody(),
+                StandardCharsets.UTF_8)), new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * 订阅其他实例发布的变化
+     */
+    public void subscribe(Consumer<StationChange> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 内存数据加载完成后开始处理通知，先处理加载期间暂存的
+     */
+    public void startDispatch() {
+        List<StationChange> buffered;
+        synchronized (pending) {
+            dispatching = true;
+            buffered = new ArrayList<>(pending);
+            pending.clear();
+        }
+        if (!buffered.isEmpty()) {
+            log.info("处理启动期间收到的{}条充电站数据变化通知", buffered.size());
+        }
+        buffered.forEach(this::dispatch);
+    }
+
+    /**
+     * 发布变化，失败时只记录日志
+     */
+    public void publish(StationChange change) {
+        change.setOrigin(instanceId);
+        try {
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(change));
+        } catch (Exception e) {
+            log.warn("发布充电站数据变化通知失败，其他实例将在下次变化或重启后同步: {}", e.getMessage());
+        }
+    }
+
+    private void onMessage(String body) {
+        try {
+            StationChange change = objectMapper.readValue(body, StationChange.class);
+            if (instanceId.equals(change.getOrigin())) {
+                return;
+            }
+            synchronized (pending) {
+                if (!dispatching) {
+                    pending.add(change);
+                    return;
+                }
+            }
+            dispatch(change);
+        } catch (Exception e) {
+            log.warn("解析充电站数据变化通知失败: {}", e.getMessage());
+        }
+    }
+
+    private void dispatch(StationChange change) {
+        for (Consumer<StationChange> listener : listeners) {
+            try {
+                listener.accept(change);
+            } catch (Exception e) {
+                log.warn("处理充电站数据变化通知失败: {}", e.getMessage());
+            }
+        }
+    }
+}
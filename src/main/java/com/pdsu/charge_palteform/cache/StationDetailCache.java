@@ -0,0 +1,228 @@
+package com.pdsu.charge_palteform.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.pdsu.charge_palteform.config.StationCacheConfig;
+import com.pdsu.charge_palteform.entity.dto.StationDetailResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 充电站详情缓存，本地缓存在前、Redis在后
+ * <p>
+ * 缓存的是不含距离的充电站及充电桩信息，距离由调用方按用户位置单独计算。
+ * 缓存键包含本实例已应用的充电站版本号，版本号变化后不再命中旧内容，
+ * 避免其他实例在变化前写入Redis的旧详情配上新版本号返回。
+ * 版本号不可用时只使用本地缓存，数据同步写入充电站或其充电桩时按充电站ID失效本地缓存。
+ */
+@Slf4j
+@Component
+public class StationDetailCache {
+
+    private static final String KEY_PREFIX = "station:detail:";
+
+    private final StationCacheConfig.Detail config;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, StationDetailResponse> localCache;
+
+    private final AtomicLong redisHits = new AtomicLong();
+    private final AtomicLong redisMisses = new AtomicLong();
+
+    public StationDetailCache(StationCacheConfig cacheConfig, StringRedisTemplate redisTemplate,
+                              ObjectMapper objectMapper) {
+        this.config = cacheConfig.getDetail();
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(config.getLocalMaximumSize())
+                .expireAfterWrite(Duration.ofSeconds(config.getLocalTtl()))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 获取充电站详情，未命中时调用loader从数据库加载，loader返回null表示充电站不存在，不缓存
+     * <p>
+     * 返回的对象为缓存共享实例，调用方不能修改
+     *
+     * @param version 本实例已应用的版本号，不可用时为null
+     */
+    public StationDetailResponse get(String stationId, String version,
+                                     Function<String, StationDetailResponse> loader) {
+        if (!config.isEnabled()) {
+            return loader.apply(stationId);
+        }
+        return localCache.get(cacheKey(stationId, version), key -> {
+            StationDetailResponse cached = version == null ? null : readRedis(key);
+            if (cached != null) {
+                redisHits.incrementAndGet();
+                return cached;
+            }
+            redisMisses.incrementAndGet();
+            StationDetailResponse loaded = loader.apply(stationId);
+            if (loaded != null && version != null) {
+                writeRedis(key, loaded);
+            }
+            return loaded;
+        });
+    }
+
+    /**
+     * 批量获取充电站详情，依次查本地缓存、Redis，剩余的调用loader一次加载，loader结果中没有的充电站视为不存在
+     *
+     * @param versions 充电站ID -> 本实例已应用的版本号，不可用时为null
+     */
+    public Map<String, StationDetailResponse> getAll(Collection<String> stationIds, Function<String, String> versions,
+                                                     Function<Collection<String>, Map<String, StationDetailResponse>> loader) {
+        if (!config.isEnabled()) {
+            return loader.apply(stationIds);
+        }
+        Map<String, String> keys = new LinkedHashMap<>();
+        Map<String, StationDetailResponse> result = new HashMap<>();
+        List<String> versioned = new ArrayList<>();
+        List<String> notInRedis = new ArrayList<>();
+        for (String stationId : stationIds) {
+            String version = versions.apply(stationId);
+            String key = cacheKey(stationId, version);
+            keys.put(stationId, key);
+            StationDetailResponse cached = localCache.getIfPresent(key);
+            if (cached != null) {
+                result.put(stationId, cached);
+            } else if (version != null) {
+                versioned.add(stationId);
+            } else {
+                notInRedis.add(stationId);
+            }
+        }
+
+        if (!versioned.isEmpty()) {
+            List<String> values = multiGetRedis(versioned.stream().map(keys::get).toList());
+            for (int i = 0; i < versioned.size(); i++) {
+                String stationId = versioned.get(i);
+                StationDetailResponse cached = values == null ? null : parse(values.get(i));
+                if (cached != null) {
+                    redisHits.incrementAndGet();
+                    localCache.put(keys.get(stationId), cached);
+                    result.put(stationId, cached);
+                } else {
+                    redisMisses.incrementAndGet();
+                    notInRedis.add(stationId);
+                }
+            }
+        }
+        if (!notInRedis.isEmpty()) {
+            Set<String> unversioned = notInRedis.stream()
+                    .filter(id -> !versioned.contains(id))
+                    .collect(Collectors.toSet());
+            loader.apply(notInRedis).forEach((id, detail) -> {
+                localCache.put(keys.get(id), detail);
+                if (!unversioned.contains(id)) {
+                    writeRedis(keys.get(id), detail);
+                }
+                result.put(id, detail);
+            });
+        }
+        return result;
+    }
+
+    /**
+     * 失效充电站详情的本地缓存，处于事务中时提交后再失效一次，避免提交前读到的旧数据被重新缓存
+     * <p>
+     * Redis中的详情按版本号区分，版本号变化后自然不再命中，按有效期过期
+     */
+    public void invalidate(Collection<String> stationIds) {
+        if (!config.isEnabled() || stationIds.isEmpty()) {
+            return;
+        }
+        List<String> ids = new ArrayList<>(stationIds);
+        evict(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(ids);
+                }
+            });
+        }
+    }
+
+    /**
+     * 命中统计
+     */
+    public Map<String, Object> getStats() {
+        CacheStats stats = localCache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", localCache.estimatedSize());
+        result.put("localHits", stats.hitCount());
+        result.put("localMisses", stats.missCount());
+        result.put("localHitRate", stats.hitRate());
+        result.put("redisHits", redisHits.get());
+        result.put("redisMisses", redisMisses.get());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+
+    private void evict(List<String> stationIds) {
+        Set<String> prefixes = stationIds.stream().map(id -> id + ":").collect(Collectors.toSet());
+        localCache.asMap().keySet().removeIf(key -> prefixes.contains(key.substring(0, key.lastIndexOf(':') + 1)));
+    }
+
+    /**
+     * 缓存键为 充电站ID:版本号，版本号不可用时为 充电站ID:
+     */
+    private static String cacheKey(String stationId, String version) {
+        return stationId + ":" + (version == null ? "" : version);
+    }
+
+    private StationDetailResponse readRedis(String key) {
+        try {
+            return parse(redisTemplate.opsForValue().get(KEY_PREFIX + key));
+        } catch (Exception e) {
+            log.debug("读取充电站详情Redis缓存失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private List<String> multiGetRedis(List<String> keys) {
+        try {
+            return redisTemplate.opsForValue().multiGet(keys.stream().map(key -> KEY_PREFIX + key).toList());
+        } catch (Exception e) {
+            log.debug("批量读取充电站详情Redis缓存失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private StationDetailResponse parse(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, StationDetailResponse.class);
+        } catch (Exception e) {
+            log.debug("解析充电站详情缓存失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRedis(String key, StationDetailResponse detail) {
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + key, objectMapper.writeValueAsString(detail),
+                    config.getRedisTtl(), TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.debug("写入充电站详情Redis缓存失败: {}", e.getMessage());
+        }
+    }
+}
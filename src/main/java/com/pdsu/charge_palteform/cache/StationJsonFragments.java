@@ -0,0 +1,85 @@
+package com.pdsu.charge_palteform.cache;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pdsu.charge_palteform.config.StationCacheConfig;
+import com.pdsu.charge_palteform.entity.ChargingStation;
+import com.pdsu.charge_palteform.enums.StationStatusEnum;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 充电站静态字段的预序列化JSON片段
+ * <p>
+ * 名称、地址、电话、营业时间等字段只随每日同步变化，按充电站缓存序列化后的字节，
+ * 列表和详情输出时直接拼接，只序列化距离、充电桩数量等动态字段。
+ * 片段形如 ,"stationName":"...","address":"..."，紧跟在已写出的充电站ID之后。
+ * 充电站信息同步后由同步实例重新生成，其他实例收到充电站变化通知后重新生成；
+ * 按条数和有效期淘汰，变化通知丢失时旧片段最多保留一个有效期。
+ */
+@Component
+public class StationJsonFragments {
+
+    private final Cache<String, SerializableString> fragments;
+
+    public StationJsonFragments(StationCacheConfig cacheConfig) {
+        StationCacheConfig.Fragment config = cacheConfig.getFragment();
+        this.fragments = Caffeine.newBuilder()
+                .maximumSize(config.getLocalMaximumSize())
+                .expireAfterWrite(Duration.ofSeconds(config.getTtl()))
+                .build();
+    }
+
+    /**
+     * 获取充电站的静态字段片段，不存在时生成
+     */
+    public SerializableString get(ChargingStation station) {
+        return fragments.get(station.getStationId(), id -> build(station));
+    }
+
+    /**
+     * 获取已生成的静态字段片段，不存在时返回null
+     */
+    public SerializableString getIfPresent(String stationId) {
+        return fragments.getIfPresent(stationId);
+    }
+
+    /**
+     * 充电站信息变化后重新生成
+     */
+    public void refresh(ChargingStation station) {
+        fragments.put(station.getStationId(), build(station));
+    }
+
+    private static SerializableString build(ChargingStation station) {
+        StringBuilder json = new StringBuilder(256);
+        appendString(json, "stationName", station.getStationName());
+        appendString(json, "address", station.getAddress());
+        appendValue(json, "longitude", station.getLongitude());
+        appendValue(json, "latitude", station.getLatitude());
+        appendString(json, "stationTel", station.getStationTel());
+        appendValue(json, "serviceFee", station.getServiceFee());
+        appendString(json, "parkingFee", station.getParkingFee());
+        appendString(json, "openingHours", station.getOpeningHours());
+        appendValue(json, "stationStatus", station.getStationStatus());
+        appendString(json, "statusText", StationStatusEnum.getDesc(station.getStationStatus()));
+        return new SerializedString(json.toString());
+    }
+
+    private static void appendString(StringBuilder json, String name, String value) {
+        json.append(",\"").append(name).append("\":");
+        if (value == null) {
+            json.append("null");
+        } else {
+            json.append('"').append(JsonStringEncoder.getInstance().quoteAsString(value)).append('"');
+        }
+    }
+
+    private static void appendValue(StringBuilder json, String name, Object value) {
+        json.append(",\"").append(name).append("\":").append(value);
+    }
+}
@@ -0,0 +1,241 @@
+package com.pdsu.charge_palteform.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pdsu.charge_palteform.config.StationCacheConfig;
+import com.pdsu.charge_palteform.entity.ChargingStation;
+import com.pdsu.charge_palteform.utils.GeoUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 附近充电站查询缓存
+ * <p>
+ * 用户位置按固定步长量化到网格，同一网格、半径和筛选条件的请求共用一份候选充电站ID列表。
+ * 候选集以网格中心为圆心、半径加网格半对角线为范围加载，能覆盖网格内任意位置的查询结果，
+ * 每个用户再按自己的位置重新计算距离并精确过滤。
+ * 本地缓存在前、Redis在后，充电站变更时只失效覆盖范围包含该充电站的缓存项。
+ * 失效的位置通过Redis频道广播，其他实例收到后失效各自的本地缓存；
+ * 通知丢失（如Redis短暂不可用）时，其他实例的本地缓存最多在本地有效期（local-ttl）后过期。
+ */
+@Slf4j
+@Component
+public class StationNearbyCache {
+
+    private static final String KEY_PREFIX = "station:nearby:";
+
+    /**
+     * Redis中按分块记录缓存键，用于按位置失效
+     */
+    private static final String BLOCK_PREFIX = "station:nearby:block:";
+
+    /**
+     * 失效分块步长（度）
+     */
+    private static final double BLOCK_SIZE = 1.0;
+
+    /**
+     * 本地缓存失效通知频道，消息为以分号分隔的“纬度,经度”
+     */
+    private static final String INVALIDATE_CHANNEL = "station:nearby:invalidate";
+
+    private final StationCacheConfig.Nearby config;
+    private final StringRedisTemplate redisTemplate;
+    private final Cache<String, Entry> localCache;
+
+    public StationNearbyCache(StationCacheConfig cacheConfig, StringRedisTemplate redisTemplate,
+                              RedisMessageListenerContainer listenerContainer) {
+        this.config = cacheConfig.getNearby();
+        this.redisTemplate = redisTemplate;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(config.getLocalMaximumSize())
+                .expireAfterWrite(Duration.ofSeconds(config.getLocalTtl()))
+                .build();
+        listenerContainer.addMessageListener((message, pattern) -> onInvalidate(new String(message.getBody(),
+                StandardCharsets.UTF_8)), new ChannelTopic(INVALIDATE_CHANNEL));
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * 获取用户位置所在网格的候选充电站ID，未命中时调用loader按网格中心和扩大后的半径加载
+     *
+     * @param filterKey 筛选条件标识，不同筛选条件分开缓存
+     */
+    public List<String> getCandidates(double latitude, double longitude, int radiusKm, String filterKey,
+                                      CandidateLoader loader) {
+        double cellSize = config.getCellSize();
+        long row = (long) Math.floor(latitude / cellSize);
+        long col = (long) Math.floor(longitude / cellSize);
+        String key = KEY_PREFIX + row + ":" + col + ":" + radiusKm + ":" + filterKey;
+
+        return localCache.get(key, k -> {
+            double centerLat = (row + 0.5) * cellSize;
+            double centerLng = (col + 0.5) * cellSize;
+            // 网格内任意位置到网格中心不超过半对角线，经度一度不长于纬度一度，按纬度换算即为上界
+            double coverRadius = radiusKm + Math.toRadians(cellSize * Math.sqrt(2) / 2) * GeoUtil.EARTH_RADIUS_KM;
+            double[] box = GeoUtil.boundingBox(centerLat, centerLng, coverRadius);
+
+            List<String> stationIds = readRedis(k);
+            if (stationIds == null) {
+                stationIds = loader.load(centerLat, centerLng, coverRadius);
+                writeRedis(k, stationIds, box);
+            }
+            return new Entry(stationIds, box);
+        }).getStationIds();
+    }
+
+    /**
+     * 充电站新增、移除、位置或可用性变化时，失效覆盖到该充电站的缓存项
+     */
+    public void invalidate(Collection<ChargingStation> stations) {
+        List<double[]> points = new ArrayList<>();
+        Set<String> blocks = new HashSet<>();
+        for (ChargingStation station : stations) {
+            if (station == null || station.getLatitude() == null || station.getLongitude() == null) {
+                continue;
+            }
+            double lat = station.getLatitude().doubleValue();
+            double lng = station.getLongitude().doubleValue();
+            points.add(new double[]{lat, lng});
+            blocks.add(blockKey(blockIndex(lat), blockIndex(lng)));
+        }
+        if (points.isEmpty()) {
+            return;
+        }
+
+        evictLocal(points);
+
+        try {
+            for (String block : blocks) {
+                Set<String> keys = redisTemplate.opsForSet().members(block);
+                if (keys != null && !keys.isEmpty()) {
+                    redisTemplate.delete(keys);
+                }
+                redisTemplate.delete(block);
+            }
+            // 先删Redis再通知，其他实例失效本地缓存后重新加载时不会读到旧的Redis缓存
+            redisTemplate.convertAndSend(INVALIDATE_CHANNEL, points.stream()
+                    .map(p -> p[0] + "," + p[1])
+                    .collect(Collectors.joining(";")));
+        } catch (Exception e) {
+            log.warn("失效附近充电站Redis缓存失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 只失效本实例覆盖到这些充电站的本地缓存，用于其他实例已失效Redis缓存并发出通知的变化
+     */
+    public void invalidateLocal(Collection<ChargingStation> stations) {
+        List<double[]> points = new ArrayList<>();
+        for (ChargingStation station : stations) {
+            if (station != null && station.getLatitude() != null && station.getLongitude() != null) {
+                points.add(new double[]{station.getLatitude().doubleValue(), station.getLongitude().doubleValue()});
+            }
+        }
+        if (!points.isEmpty()) {
+            evictLocal(points);
+        }
+    }
+
+    private void evictLocal(List<double[]> points) {
+        localCache.asMap().values().removeIf(entry -> points.stream().anyMatch(p -> entry.covers(p[0], p[1])));
+    }
+
+    /**
+     * 收到失效通知（包括本实例发出的）时失效本地缓存
+     */
+    private void onInvalidate(String body) {
+        try {
+            List<double[]> points = new ArrayList<>();
+            for (String point : body.split(";")) {
+                String[] parts = point.split(",");
+                points.add(new double[]{Double.parseDouble(parts[0]), Double.parseDouble(parts[1])});
+            }
+            evictLocal(points);
+        } catch (Exception e) {
+            log.warn("处理附近充电站缓存失效通知失败: {}", e.getMessage());
+        }
+    }
+
+    private List<String> readRedis(String key) {
+        try {
+            String value = redisTemplate.opsForValue().get(key);
+            if (value == null) {
+                return null;
+            }
+            return value.isEmpty() ? Collections.emptyList() : Arrays.asList(value.split(","));
+        } catch (Exception e) {
+            log.debug("读取附近充电站Redis缓存失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRedis(String key, List<String> stationIds, double[] box) {
+        try {
+            long ttl = config.getRedisTtl();
+            redisTemplate.opsForValue().set(key, String.join(",", stationIds), ttl, TimeUnit.SECONDS);
+            // 登记到覆盖范围内的每个分块，分块记录比缓存项多保留一个周期
+            for (long row = blockIndex(box[0]); row <= blockIndex(box[1]); row++) {
+                for (long col = blockIndex(box[2]); col <= blockIndex(box[3]); col++) {
+                    String block = blockKey(row, col);
+                    redisTemplate.opsForSet().add(block, key);
+                    redisTemplate.expire(block, ttl * 2, TimeUnit.SECONDS);
+                }
+            }
+        } catch (Exception e) {
+            log.debug("写入附近充电站Redis缓存失败: {}", e.getMessage());
+        }
+    }
+
+    private static long blockIndex(double degree) {
+        return (long) Math.floor(degree / BLOCK_SIZE);
+    }
+
+    private static String blockKey(long row, long col) {
+        return BLOCK_PREFIX + row + ":" + col;
+    }
+
+    /**
+     * 候选集加载
+     */
+    @FunctionalInterface
+    public interface CandidateLoader {
+        /**
+         * 加载范围内符合筛选条件的充电站ID
+         */
+        List<String> load(double centerLatitude, double centerLongitude, double radiusKm);
+    }
+
+    /**
+     * 缓存项：候选充电站ID及其覆盖范围
+     */
+    private static final class Entry {
+        private final List<String> stationIds;
+        private final double[] box;
+
+        Entry(List<String> stationIds, double[] box) {
+            this.stationIds = stationIds;
+            this.box = box;
+        }
+
+        List<String> getStationIds() {
+            return stationIds;
+        }
+
+        boolean covers(double latitude, double longitude) {
+            return latitude >= box[0] && latitude <= box[1] && longitude >= box[2] && longitude <= box[3];
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.pdsu.charge_palteform.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pdsu.charge_palteform.config.StationCacheConfig;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 搜索结果快照
+ * <p>
+ * 第一页搜索时保存排好序的充电站ID列表并返回快照令牌，翻页时按令牌取出ID列表直接切片，
+ * 不再重复搜索。本地缓存在前、Redis在后，快照按有效期过期，不随数据同步失效。
+ */
+@Slf4j
+@Component
+public class StationSearchSnapshotCache {
+
+    private static final String KEY_PREFIX = "station:search:";
+
+    private final StationCacheConfig.Search config;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Snapshot> localCache;
+
+    public StationSearchSnapshotCache(StationCacheConfig cacheConfig, StringRedisTemplate redisTemplate,
+                                      ObjectMapper objectMapper) {
+        this.config = cacheConfig.getSearch();
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(config.getLocalMaximumSize())
+                .expireAfterWrite(Duration.ofSeconds(config.getTtl()))
+                .build();
+    }
+
+    /**
+     * 每个快照最多保存的充电站ID数，未启用时为0
+     */
+    public int getMaxIds() {
+        return config.isEnabled() ? config.getMaxIds() : 0;
+    }
+
+    /**
+     * 保存快照
+     *
+     * @param query      查询条件标识，取快照时校验
+     * @param stationIds 排好序的充电站ID，超过上限的部分截断
+     * @param total      匹配总数
+     * @return 快照令牌，未启用时为null
+     */
+    public String save(String query, List<String> stationIds, int total) {
+        if (!config.isEnabled()) {
+            return null;
+        }
+        List<String> ids = stationIds.size() > config.getMaxIds()
+                ? List.copyOf(stationIds.subList(0, config.getMaxIds())) : List.copyOf(stationIds);
+        Snapshot snapshot = new Snapshot(query, ids, total);
+        String token = UUID.randomUUID().toString().replace("-", "");
+        localCache.put(token, snapshot);
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + token, objectMapper.writeValueAsString(snapshot),
+                    config.getTtl(), TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.debug("写入搜索快照Redis缓存失败: {}", e.getMessage());
+        }
+        return token;
+    }
+
+    /**
+     * 按令牌取快照，不存在、已过期或查询条件不一致时返回null
+     */
+    public Snapshot get(String token, String query) {
+        if (!config.isEnabled() || !StringUtils.hasText(token)) {
+            return null;
+        }
+        Snapshot snapshot = localCache.get(token, this::readRedis);
+        return snapshot != null && snapshot.getQuery().equals(query) ? snapshot : null;
+    }
+
+    private Snapshot readRedis(String token) {
+        try {
+            String json = redisTemplate.opsForValue().get(KEY_PREFIX + token);
+            return json == null ? null : objectMapper.readValue(json, Snapshot.class);
+        } catch (Exception e) {
+            log.debug("读取搜索快照Redis缓存失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 快照：查询条件、排好序的充电站ID及匹配总数
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Snapshot {
+        private String query;
+        private List<String> stationIds;
+        private int total;
+    }
+}
@@ -0,0 +1,149 @@
+package com.pdsu.charge_palteform.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 充电站数据版本号，充电站或其充电桩变化时递增，用于生成ETag
+ * <p>
+ * 版本号由Redis哈希分配，所有实例共用同一序列；每个实例只返回自己已应用的版本号：
+ * 执行同步的实例在更新本地状态后递增并记录，其他实例应用广播的变化后才记录其中的版本号，
+ * 不会出现版本号已更新、响应内容仍是旧数据的情况。
+ * 版本号由纪元和计数组成，纪元在哈希首次创建时取当前毫秒时间戳，
+ * Redis数据丢失后纪元随之变化，不会与之前发出的版本号重复。
+ * 启动时先读取版本号快照再加载内存数据，内存数据不会比快照旧，加载完成后版本号才生效。
+ * 版本号未生效或递增失败的充电站返回null，调用方不做条件请求判断，只会多返回200，不会误返回304。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StationVersionTracker {
+
+    private static final String KEY = "station:version";
+
+    /**
+     * 哈希中保存纪元的字段，充电站ID不会与之相同
+     */
+    private static final String EPOCH_FIELD = "#epoch";
+
+    /**
+     * 递增失败的充电站，在下次递增成功前不返回版本号
+     */
+    private static final long UNKNOWN = -1;
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * 本实例已应用的版本号，充电站ID -> 计数
+     */
+    private final Map<String, Long> applied = new ConcurrentHashMap<>();
+
+    private volatile String epoch;
+    private volatile boolean ready = false;
+
+    /**
+     * 读取版本号快照，须在加载内存数据之前调用，读取失败时返回null
+     */
+    public Map<String, String> readSnapshot() {
+        try {
+            redisTemplate.opsForHash().putIfAbsent(KEY, EPOCH_FIELD, String.valueOf(System.currentTimeMillis()));
+            Map<String, String> snapshot = new HashMap<>();
+            redisTemplate.opsForHash().entries(KEY).forEach((field, value) ->
+                    snapshot.put(String.valueOf(field), String.valueOf(value)));
+            return snapshot;
+        } catch (Exception e) {
+            log.error("读取充电站版本号失败，本次运行不返回版本号: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 内存数据加载完成后以快照初始化，之后收到的广播按较大者合并
+     */
+    public synchronized void init(Map<String, String> snapshot) {
+        if (snapshot == null || snapshot.get(EPOCH_FIELD) == null) {
+            return;
+        }
+        Map<String, Long> counters = new HashMap<>();
+        snapshot.forEach((field, value) -> {
+            if (!EPOCH_FIELD.equals(field)) {
+                counters.put(field, Long.parseLong(value));
+            }
+        });
+        record(snapshot.get(EPOCH_FIELD), counters);
+        ready = true;
+    }
+
+    /**
+     * 获取本实例已应用的充电站版本号，不可用时返回null
+     */
+    public String getVersion(String stationId) {
+        if (!ready) {
+            return null;
+        }
+        long counter = applied.getOrDefault(stationId, 0L);
+        return counter == UNKNOWN ? null : epoch + "." + counter;
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * 本地状态更新后递增版本号并记录为已应用
+     *
+     * @return 递增成功的充电站的新计数
+     */
+    public Map<String, Long> bump(Collection<String> stationIds) {
+        if (stationIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Long> counters = new HashMap<>();
+        try {
+            for (String stationId : stationIds) {
+                counters.put(stationId, redisTemplate.opsForHash().increment(KEY, stationId, 1));
+            }
+            Object current = redisTemplate.opsForHash().get(KEY, EPOCH_FIELD);
+            if (current == null) {
+                redisTemplate.opsForHash().putIfAbsent(KEY, EPOCH_FIELD, String.valueOf(System.currentTimeMillis()));
+                current = redisTemplate.opsForHash().get(KEY, EPOCH_FIELD);
+            }
+            record(String.valueOf(current), counters);
+        } catch (Exception e) {
+            log.error("递增充电站版本号失败，相关充电站暂不返回版本号: {}", e.getMessage());
+            counters.clear();
+        }
+        markUnknown(stationIds.stream().filter(id -> !counters.containsKey(id)).toList());
+        return counters;
+    }
+
+    /**
+     * 应用其他实例广播的变化后记录其中的版本号，变化中没有版本号的充电站暂不返回版本号
+     */
+    public void apply(String epoch, Map<String, Long> counters, Collection<String> stationIds) {
+        if (epoch != null && counters != null) {
+            record(epoch, counters);
+        }
+        markUnknown(stationIds.stream()
+                .filter(id -> counters == null || !counters.containsKey(id))
+                .toList());
+    }
+
+    private synchronized void record(String epoch, Map<String, Long> counters) {
+        if (!epoch.equals(this.epoch)) {
+            // Redis数据丢失后纪元变化，之前的计数不再有效
+            applied.clear();
+            this.epoch = epoch;
+        }
+        counters.forEach((stationId, counter) -> applied.merge(stationId, counter, Math::max));
+    }
+
+    private void markUnknown(List<String> stationIds) {
+        stationIds.forEach(stationId -> applied.put(stationId, UNKNOWN));
+    }
+}
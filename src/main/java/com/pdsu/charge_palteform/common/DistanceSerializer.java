@@ -0,0 +1,24 @@
+package com.pdsu.charge_palteform.common;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 距离序列化，计算时使用double，输出时保留两位小数
+ */
+public class DistanceSerializer extends JsonSerializer<Double> {
+
+    @Override
+    public void serialize(Double value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        write(value, gen);
+    }
+
+    static void write(double value, JsonGenerator gen) throws IOException {
+        gen.writeNumber(BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP));
+    }
+}
@@ -0,0 +1,26 @@
+package com.pdsu.charge_palteform.common;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.pdsu.charge_palteform.entity.dto.StationDetailResponse;
+
+import java.io.IOException;
+
+/**
+ * 充电站详情序列化，静态字段拼接预序列化片段，只序列化距离、充电桩统计和充电桩列表
+ */
+public class StationDetailResponseSerializer extends StationStaticFieldsSerializer<StationDetailResponse> {
+
+    @Override
+    public void serialize(StationDetailResponse value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeStartObject(value);
+        writeStaticFields(value, gen);
+        writeDistanceField(gen, value.getDistance());
+        writeNumberField(gen, "totalConnectors", value.getTotalConnectors());
+        writeNumberField(gen, "availableConnectors", value.getAvailableConnectors());
+        writeNumberField(gen, "chargingConnectors", value.getChargingConnectors());
+        writeNumberField(gen, "faultConnectors", value.getFaultConnectors());
+        serializers.defaultSerializeField("connectors", value.getConnectors(), gen);
+        gen.writeEndObject();
+    }
+}
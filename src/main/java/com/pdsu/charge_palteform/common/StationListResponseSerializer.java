@@ -0,0 +1,27 @@
+package com.pdsu.charge_palteform.common;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.pdsu.charge_palteform.entity.dto.StationListResponse;
+
+import java.io.IOException;
+
+/**
+ * 充电站列表项序列化，静态字段拼接预序列化片段，只序列化距离、充电桩统计和价格范围
+ */
+public class StationListResponseSerializer extends StationStaticFieldsSerializer<StationListResponse> {
+
+    @Override
+    public void serialize(StationListResponse value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeStartObject(value);
+        writeStaticFields(value, gen);
+        writeDistanceField(gen, value.getDistance());
+        writeNumberField(gen, "totalConnectors", value.getTotalConnectors());
+        writeNumberField(gen, "availableConnectors", value.getAvailableConnectors());
+        writeNumberField(gen, "chargingConnectors", value.getChargingConnectors());
+        writeNumberField(gen, "faultConnectors", value.getFaultConnectors());
+        writeNumberField(gen, "minElectricityFee", value.getMinElectricityFee());
+        writeNumberField(gen, "maxElectricityFee", value.getMaxElectricityFee());
+        gen.writeEndObject();
+    }
+}
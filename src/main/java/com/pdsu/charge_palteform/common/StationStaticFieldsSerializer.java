@@ -0,0 +1,86 @@
+package com.pdsu.charge_palteform.common;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.pdsu.charge_palteform.entity.dto.StationStaticFields;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * 充电站响应序列化基类，静态字段有预序列化片段时直接拼接
+ */
+public abstract class StationStaticFieldsSerializer<T extends StationStaticFields> extends JsonSerializer<T> {
+
+    private static final JsonFactory FRAGMENT_FACTORY = new JsonFactory();
+
+    /**
+     * 写出充电站ID和静态字段，需在对象开始后第一个调用
+     * <p>
+     * 有片段时只使用片段，片段覆盖的字段可以不填充
+     */
+    protected void writeStaticFields(T value, JsonGenerator gen) throws IOException {
+        gen.writeStringField("stationId", value.getStationId());
+        SerializableString fragment = value.getStaticFragment();
+        if (fragment != null) {
+            if (gen instanceof TokenBuffer) {
+                copyFragment(fragment, gen);
+            } else {
+                gen.writeRaw(fragment);
+            }
+            return;
+        }
+        gen.writeStringField("stationName", value.getStationName());
+        gen.writeStringField("address", value.getAddress());
+        writeNumberField(gen, "longitude", value.getLongitude());
+        writeNumberField(gen, "latitude", value.getLatitude());
+        gen.writeStringField("stationTel", value.getStationTel());
+        writeNumberField(gen, "serviceFee", value.getServiceFee());
+        gen.writeStringField("parkingFee", value.getParkingFee());
+        gen.writeStringField("openingHours", value.getOpeningHours());
+        writeNumberField(gen, "stationStatus", value.getStationStatus());
+        gen.writeStringField("statusText", value.getStatusText());
+    }
+
+    /**
+     * TokenBuffer不支持原样写入，片段补全为对象解析后逐个复制，数值保持原精度
+     */
+    private static void copyFragment(SerializableString fragment, JsonGenerator gen) throws IOException {
+        try (JsonParser parser = FRAGMENT_FACTORY.createParser("{" + fragment.getValue().substring(1) + "}")) {
+            parser.nextToken();
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_OBJECT) {
+                if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                    gen.writeNumber(parser.getDecimalValue());
+                } else {
+                    gen.copyCurrentEvent(parser);
+                }
+            }
+        }
+    }
+
+    protected void writeNumberField(JsonGenerator gen, String name, Number value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else if (value instanceof BigDecimal decimal) {
+            gen.writeNumber(decimal);
+        } else {
+            gen.writeNumber(value.intValue());
+        }
+    }
+
+    protected void writeDistanceField(JsonGenerator gen, Double distance) throws IOException {
+        gen.writeFieldName("distance");
+        if (distance == null) {
+            gen.writeNull();
+        } else {
+            DistanceSerializer.write(distance, gen);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.pdsu.charge_palteform.common;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 流式输出列表结果，响应格式与 Result 一致，列表元素边生成边写出
+ */
+public final class StreamingResult {
+
+    /**
+     * 每写出多少条刷新一次输出流
+     */
+    private static final int FLUSH_INTERVAL = 20;
+
+    private StreamingResult() {
+    }
+
+    public static <T> ResponseEntity<StreamingResponseBody> success(ObjectMapper objectMapper, Stream<T> data) {
+        return success(objectMapper, action -> {
+            try (Stream<T> stream = data) {
+                stream.forEach(action);
+            }
+        });
+    }
+
+    /**
+     * 由数据源在写出响应时逐条推送元素，适用于需要在事务内消费的数据库游标
+     */
+    public static <T> ResponseEntity<StreamingResponseBody> success(ObjectMapper objectMapper, Rows<T> rows) {
+        // 逐条写出时不自动刷新，按批次刷新
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartObject();
+                generator.writeNumberField("code", 200);
+                generator.writeStringField("message", "success");
+                generator.writeArrayFieldStart("data");
+                int[] written = {0};
+                try {
+                    rows.forEach(item -> {
+                        try {
+                            writer.writeValue(generator, item);
+                            if (++written[0] % FLUSH_INTERVAL == 0) {
+                                generator.flush();
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * 流式数据源
+     */
+    @FunctionalInterface
+    public interface Rows<T> {
+        /**
+         * 依次把每个元素交给action
+         */
+        void forEach(Consumer<T> action);
+    }
+}
@@ -0,0 +1,30 @@
+package com.pdsu.charge_palteform.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "station.status-store")
+public class ConnectorStatusStoreConfig {
+    /**
+     * 是否启用，关闭时充电桩状态直接读写数据库
+     */
+    private boolean enabled = true;
+
+    /**
+     * 状态文件路径，每个实例使用各自的文件，启动时与数据库对账
+     */
+    private String path = "data/connector-status.dat";
+
+    /**
+     * 最多保存的充电桩数量，决定文件大小
+     */
+    private int capacity = 200000;
+
+    /**
+     * 写回数据库的间隔（毫秒）
+     */
+    private long flushInterval = 2000;
+}
@@ -0,0 +1,89 @@
+package com.pdsu.charge_palteform.config;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 充电桩状态同步租约，多实例部署时只由持有租约的实例轮询电能平台
+ * <p>
+ * 租约保存在Redis中，值为实例ID，持有者每次同步前续期，持有者停止后租约过期，由其他实例接替。
+ * 其他实例不轮询，通过 {@link com.pdsu.charge_palteform.cache.StationChangeBroadcaster} 接收状态变化。
+ * Redis不可用时照常同步，各实例写入的是同一份平台状态，只是重复请求电能平台。
+ */
+@Slf4j
+@Component
+public class ConnectorStatusSyncLease {
+
+    private static final String KEY = "station:status-sync:owner";
+
+    /**
+     * 仍由本实例持有时续期
+     */
+    private static final DefaultRedisScript<Long> RENEW = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('expire', KEYS[1], ARGV[2]) end return 0",
+            Long.class);
+
+    /**
+     * 仍由本实例持有时释放
+     */
+    private static final DefaultRedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) end return 0",
+            Long.class);
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    private final StationSyncConfig config;
+    private volatile boolean owner = false;
+
+    public ConnectorStatusSyncLease(StringRedisTemplate redisTemplate, StationSyncConfig config) {
+        this.redisTemplate = redisTemplate;
+        this.config = config;
+    }
+
+    /**
+     * 获取或续期租约
+     *
+     * @return 本实例是否应执行充电桩状态同步
+     */
+    public boolean tryAcquire() {
+        long ttl = config.getStatusLeaseTtl();
+        try {
+            boolean acquired = Boolean.TRUE.equals(
+                    redisTemplate.opsForValue().setIfAbsent(KEY, instanceId, Duration.ofSeconds(ttl)));
+            if (!acquired) {
+                Long renewed = redisTemplate.execute(RENEW, List.of(KEY), instanceId, String.valueOf(ttl));
+                acquired = renewed != null && renewed == 1;
+            }
+            if (acquired != owner) {
+                log.info(acquired ? "本实例获得充电桩状态同步租约" : "充电桩状态同步租约已由其他实例持有");
+            }
+            owner = acquired;
+            return acquired;
+        } catch (Exception e) {
+            log.warn("获取充电桩状态同步租约失败，本实例照常同步: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * 停止时释放租约，其他实例不必等到过期即可接替
+     */
+    @PreDestroy
+    public void release() {
+        if (!owner) {
+            return;
+        }
+        try {
+            redisTemplate.execute(RELEASE, List.of(KEY), instanceId);
+        } catch (Exception e) {
+            log.warn("释放充电桩状态同步租约失败: {}", e.getMessage());
+        }
+    }
+}
@@ -17,6 +17,7 @@ import org.springframework.scheduling.annotation.Scheduled;
 public class ScheduleConfig {
 
     private final DataSyncService dataSyncService;
+    private final ConnectorStatusSyncLease connectorStatusSyncLease;
 
     /**
      * 每天凌晨2点同步充电站基础信息
@@ -33,10 +34,14 @@ public class ScheduleConfig {
     }
 
     /**
-     * 每5分钟同步充电桩状态
+     * 每5分钟同步充电桩状态，多实例部署时只由持有同步租约的实例执行
      */
     @Scheduled(fixedRate = 300000) // 5分钟 = 300000毫秒
     public void syncConnectorStatus() {
+        if (!connectorStatusSyncLease.tryAcquire()) {
+            log.debug("充电桩状态同步由其他实例执行，跳过");
+            return;
+        }
         log.debug("开始定时同步充电桩状态...");
         try {
             dataSyncService.syncConnectorStatus();
@@ -1,14 +1,25 @@
 package com.pdsu.charge_palteform.config;
 
 
+import com.pdsu.charge_palteform.cache.StationChangeBroadcaster;
+import com.pdsu.charge_palteform.cache.StationVersionTracker;
+import com.pdsu.charge_palteform.index.ConnectorStatusStore;
+import com.pdsu.charge_palteform.index.StationGeoIndex;
+import com.pdsu.charge_palteform.index.StationSearchIndex;
+import com.pdsu.charge_palteform.index.StationSuggestIndex;
+import com.pdsu.charge_palteform.index.StationTilePyramid;
 import com.pdsu.charge_palteform.service.EnergyPlatformService;
+import com.pdsu.charge_palteform.service.StationSummaryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.core.annotation.Order;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+
 @Slf4j
 @Service
 @Order(1) // 优先级最高，第一个执行
@@ -16,6 +27,15 @@ import org.springframework.stereotype.Service;
 public class StartupInitService implements ApplicationRunner {
 
     private final EnergyPlatformService energyPlatformService;
+    private final StationGeoIndex stationGeoIndex;
+    private final StationSearchIndex stationSearchIndex;
+    private final StationSuggestIndex stationSuggestIndex;
+    private final StationSummaryService stationSummaryService;
+    private final StationTilePyramid stationTilePyramid;
+    private final ConnectorStatusStore connectorStatusStore;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final StationChangeBroadcaster stationChangeBroadcaster;
+    private final StationVersionTracker stationVersionTracker;
 
     @Override
     public void run(ApplicationArguments args) throws Exception {
@@ -27,6 +47,32 @@ public class StartupInitService implements ApplicationRunner {
         // 2. 预热Token缓存
         warmupTokenCache();
 
+        // 3. 订阅缓存失效和数据变化通知，加载期间收到的数据变化暂存
+        startRedisListener();
+
+        // 4. 读取版本号快照，之后加载的内存数据不会比快照旧
+        Map<String, String> versionSnapshot = stationVersionTracker.readSnapshot();
+
+        // 5. 构建充电站空间索引
+        buildStationGeoIndex();
+
+        // 6. 构建充电站搜索和联想索引
+        buildStationSearchIndex();
+        buildStationSuggestIndex();
+
+        // 7. 打开充电桩状态存储
+        openConnectorStatusStore();
+
+        // 8. 加载充电站汇总信息
+        loadStationSummaries();
+
+        // 9. 构建地图瓦片聚合
+        buildStationTilePyramid();
+
+        // 10. 启用版本号，处理加载期间收到的数据变化
+        stationVersionTracker.init(versionSnapshot);
+        stationChangeBroadcaster.startDispatch();
+
         log.info("================ 应用启动初始化完成 ================");
     }
 
@@ -74,4 +120,100 @@ public class StartupInitService implements ApplicationRunner {
             log.error("❌ Token缓存预热失败: {}", e.getMessage());
         }
     }
+
+    /**
+     * 构建充电站空间索引
+     */
+    private void buildStationGeoIndex() {
+        try {
+            log.info("正在构建充电站空间索引...");
+            stationGeoIndex.rebuild();
+            log.info("✅ 充电站空间索引构建成功，共{}个充电站", stationGeoIndex.size());
+        } catch (Exception e) {
+            log.error("❌ 充电站空间索引构建失败: {}", e.getMessage());
+            log.warn("⚠️  附近充电站查询将回退到数据库");
+        }
+    }
+
+    /**
+     * 构建充电站搜索索引
+     */
+    private void buildStationSearchIndex() {
+        try {
+            log.info("正在构建充电站搜索索引...");
+            stationSearchIndex.rebuild();
+            log.info("✅ 充电站搜索索引构建成功");
+        } catch (Exception e) {
+            log.error("❌ 充电站搜索索引构建失败: {}", e.getMessage());
+            log.warn("⚠️  关键词搜索将回退到数据库");
+        }
+    }
+
+    /**
+     * 构建充电站联想索引
+     */
+    private void buildStationSuggestIndex() {
+        try {
+            log.info("正在构建充电站联想索引...");
+            stationSuggestIndex.rebuild();
+            log.info("✅ 充电站联想索引构建成功");
+        } catch (Exception e) {
+            log.error("❌ 充电站联想索引构建失败: {}", e.getMessage());
+            log.warn("⚠️  搜索联想将在下次充电站信息同步后可用");
+        }
+    }
+
+    /**
+     * 打开充电桩状态存储
+     */
+    private void openConnectorStatusStore() {
+        try {
+            log.info("正在打开充电桩状态存储...");
+            connectorStatusStore.open();
+            log.info("✅ 充电桩状态存储打开成功");
+        } catch (Exception e) {
+            log.error("❌ 充电桩状态存储打开失败，充电桩状态将直接读写数据库: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 启动Redis消息监听，接收其他实例发布的缓存失效和数据变化通知
+     */
+    private void startRedisListener() {
+        try {
+            log.info("正在订阅缓存失效和数据变化通知...");
+            redisMessageListenerContainer.start();
+            log.info("✅ 缓存失效和数据变化通知订阅成功");
+        } catch (Exception e) {
+            log.error("❌ 缓存失效和数据变化通知订阅失败: {}", e.getMessage());
+            log.warn("⚠️  其他实例的数据变更将在本地缓存过期后生效");
+        }
+    }
+
+    /**
+     * 加载充电站汇总信息
+     */
+    private void loadStationSummaries() {
+        try {
+            log.info("正在加载充电站汇总信息...");
+            stationSummaryService.reload();
+            log.info("✅ 充电站汇总信息加载成功");
+        } catch (Exception e) {
+            log.error("❌ 充电站汇总信息加载失败: {}", e.getMessage());
+            log.warn("⚠️  附近充电站筛选将回退到数据库");
+        }
+    }
+
+    /**
+     * 构建地图瓦片聚合（依赖空间索引和汇总信息）
+     */
+    private void buildStationTilePyramid() {
+        try {
+            log.info("正在构建地图瓦片聚合...");
+            stationTilePyramid.rebuild();
+            log.info("✅ 地图瓦片聚合构建成功");
+        } catch (Exception e) {
+            log.error("❌ 地图瓦片聚合构建失败: {}", e.getMessage());
+        }
+    }
 }
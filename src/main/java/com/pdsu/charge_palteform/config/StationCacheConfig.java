@@ -0,0 +1,117 @@
+package com.pdsu.charge_palteform.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "station.cache")
+public class StationCacheConfig {
+    /**
+     * 附近充电站查询缓存
+     */
+    private Nearby nearby = new Nearby();
+
+    /**
+     * 充电站详情缓存
+     */
+    private Detail detail = new Detail();
+
+    /**
+     * 搜索结果快照
+     */
+    private Search search = new Search();
+
+    /**
+     * 充电站静态字段JSON片段
+     */
+    private Fragment fragment = new Fragment();
+
+    @Data
+    public static class Nearby {
+        /**
+         * 是否启用
+         */
+        private boolean enabled = true;
+
+        /**
+         * 位置量化网格步长（度）
+         */
+        private double cellSize = 0.005;
+
+        /**
+         * 本地缓存最大条数
+         */
+        private long localMaximumSize = 10000;
+
+        /**
+         * 本地缓存有效期（秒）
+         */
+        private long localTtl = 30;
+
+        /**
+         * Redis缓存有效期（秒）
+         */
+        private long redisTtl = 120;
+    }
+
+    @Data
+    public static class Detail {
+        /**
+         * 是否启用
+         */
+        private boolean enabled = true;
+
+        /**
+         * 本地缓存最大条数
+         */
+        private long localMaximumSize = 5000;
+
+        /**
+         * 本地缓存有效期（秒）
+         */
+        private long localTtl = 60;
+
+        /**
+         * Redis缓存有效期（秒）
+         */
+        private long redisTtl = 300;
+    }
+
+    @Data
+    public static class Search {
+        /**
+         * 是否启用
+         */
+        private boolean enabled = true;
+
+        /**
+         * 每个快照最多保存的充电站ID数，超出部分翻页时重新搜索
+         */
+        private int maxIds = 500;
+
+        /**
+         * 本地缓存最大快照数
+         */
+        private long localMaximumSize = 2000;
+
+        /**
+         * 快照有效期（秒）
+         */
+        private long ttl = 300;
+    }
+
+    @Data
+    public static class Fragment {
+        /**
+         * 最多缓存的充电站数
+         */
+        private long localMaximumSize = 50000;
+
+        /**
+         * 有效期（秒），充电站信息变化时随同步和变化通知重新生成，变化通知丢失时最多使用这么久的旧片段
+         */
+        private long ttl = 3600;
+    }
+}
@@ -0,0 +1,20 @@
+package com.pdsu.charge_palteform.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "station.sync")
+public class StationSyncConfig {
+    /**
+     * 本地无充电站数据时，两次后台触发同步之间的冷却期（秒）
+     */
+    private long triggerCooldown = 600;
+
+    /**
+     * 充电桩状态同步租约有效期（秒），持有租约的实例停止后其他实例最多等待这么久接替，应大于同步间隔
+     */
+    private long statusLeaseTtl = 900;
+}
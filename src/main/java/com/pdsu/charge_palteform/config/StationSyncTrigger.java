@@ -0,0 +1,99 @@
+package com.pdsu.charge_palteform.config;
+
+import com.pdsu.charge_palteform.index.StationGeoIndex;
+import com.pdsu.charge_palteform.mapper.ChargingStationMapper;
+import com.pdsu.charge_palteform.service.DataSyncService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 本地没有任何充电站数据时，由用户查询在后台触发充电站基础信息同步
+ * <p>
+ * 只在本地充电站表为空时触发，有数据的地区查询无结果属于正常情况，不触发。
+ * 同一时间只提交一次同步，两次触发之间有冷却期，调用方立即返回，不等待同步完成。
+ * 与定时任务、手动同步的互斥由 {@link DataSyncService#syncStationInfo()} 保证。
+ */
+@Slf4j
+@Component
+public class StationSyncTrigger {
+
+    private final DataSyncService dataSyncService;
+    private final ChargingStationMapper stationMapper;
+    private final StationGeoIndex stationGeoIndex;
+    private final StationSyncConfig config;
+    private final ExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile long lastStarted = Long.MIN_VALUE;
+
+    public StationSyncTrigger(DataSyncService dataSyncService, ChargingStationMapper stationMapper,
+                              StationGeoIndex stationGeoIndex, StationSyncConfig config) {
+        this.dataSyncService = dataSyncService;
+        this.stationMapper = stationMapper;
+        this.stationGeoIndex = stationGeoIndex;
+        this.config = config;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "station-sync-trigger");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 本地充电站表为空时请求后台同步，已有同步在运行或处于冷却期时忽略
+     *
+     * @param reason 触发原因，用于日志
+     * @return 是否启动了同步
+     */
+    public boolean triggerIfEmpty(String reason) {
+        // 索引中有充电站时不查数据库
+        if (stationGeoIndex.isReady() && stationGeoIndex.size() > 0) {
+            return false;
+        }
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if (lastStarted != Long.MIN_VALUE && now - lastStarted < config.getTriggerCooldown() * 1000) {
+            running.set(false);
+            return false;
+        }
+        try {
+            if (stationMapper.selectCount(null) > 0) {
+                running.set(false);
+                return false;
+            }
+        } catch (Exception e) {
+            running.set(false);
+            log.warn("查询本地充电站数量失败: {}", e.getMessage());
+            return false;
+        }
+        lastStarted = now;
+        log.info("{}，本地无充电站数据，在后台从电能平台同步充电站数据", reason);
+        try {
+            executor.execute(() -> {
+                try {
+                    dataSyncService.syncStationInfo();
+                } catch (Exception e) {
+                    log.error("后台同步充电站数据失败: {}", e.getMessage());
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (Exception e) {
+            running.set(false);
+            log.warn("提交后台同步任务失败: {}", e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
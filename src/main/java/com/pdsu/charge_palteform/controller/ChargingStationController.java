@@ -1,18 +1,32 @@
 package com.pdsu.charge_palteform.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pdsu.charge_palteform.common.Result;
+import com.pdsu.charge_palteform.common.StreamingResult;
 import com.pdsu.charge_palteform.entity.ChargingConnector;
+import com.pdsu.charge_palteform.entity.dto.ConnectorItem;
+import com.pdsu.charge_palteform.entity.dto.MapClusterRequest;
+import com.pdsu.charge_palteform.entity.dto.MapClusterResponse;
+import com.pdsu.charge_palteform.entity.dto.NearestConnectorRequest;
+import com.pdsu.charge_palteform.entity.dto.NearestConnectorResponse;
 import com.pdsu.charge_palteform.entity.dto.PageResponse;
+import com.pdsu.charge_palteform.entity.dto.StationBatchDetailRequest;
 import com.pdsu.charge_palteform.entity.dto.StationDetailResponse;
 import com.pdsu.charge_palteform.entity.dto.StationListResponse;
 import com.pdsu.charge_palteform.entity.dto.StationQueryRequest;
+import com.pdsu.charge_palteform.entity.dto.StationSuggestion;
+import com.pdsu.charge_palteform.exception.BusinessException;
 import com.pdsu.charge_palteform.service.ChargingStationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -25,6 +39,7 @@ import java.util.List;
 public class ChargingStationController {
 
     private final ChargingStationService chargingStationService;
+    private final ObjectMapper objectMapper;
 
     @Operation(summary = "查询附近充电站", description = "根据位置信息查询附近的充电站")
     @PostMapping("/nearby")
@@ -42,22 +57,82 @@ public class ChargingStationController {
         return Result.success(response);
     }
 
-    @Operation(summary = "获取充电站详情", description = "根据充电站ID获取详细信息")
+    @Operation(summary = "充电站搜索联想", description = "根据输入前缀返回充电站名称和地址联想，支持汉字、全拼和拼音首字母")
+    @GetMapping("/suggest")
+    public Result<List<StationSuggestion>> suggestStations(
+            @Parameter(description = "输入前缀") @RequestParam String prefix,
+            @Parameter(description = "返回条数，最多20") @RequestParam(defaultValue = "10") int limit) {
+        List<StationSuggestion> response = chargingStationService.suggestStations(prefix, limit);
+        return Result.success(response);
+    }
+
+    @Operation(summary = "地图充电站聚合", description = "根据地图视野范围和缩放级别返回按瓦片聚合的充电站统计")
+    @PostMapping("/map/clusters")
+    public Result<MapClusterResponse> queryMapClusters(
+            @Valid @RequestBody MapClusterRequest request) {
+        MapClusterResponse response = chargingStationService.queryMapClusters(request);
+        return Result.success(response);
+    }
+
+    @Operation(summary = "查询最近的充电桩", description = "按距离由近到远返回N个符合条件的充电桩，不限定搜索半径")
+    @PostMapping("/connectors/nearest")
+    public Result<List<NearestConnectorResponse>> queryNearestConnectors(
+            @Valid @RequestBody NearestConnectorRequest request) {
+        List<NearestConnectorResponse> response = chargingStationService.queryNearestConnectors(request);
+        return Result.success(response);
+    }
+
+    @Operation(summary = "获取充电站详情", description = "根据充电站ID获取详细信息，支持If-None-Match条件请求")
     @GetMapping("/detail/{stationId}")
     public Result<StationDetailResponse> getStationDetail(
             @Parameter(description = "充电站ID") @PathVariable String stationId,
             @Parameter(description = "用户纬度") @RequestParam(required = false) BigDecimal latitude,
-            @Parameter(description = "用户经度") @RequestParam(required = false) BigDecimal longitude) {
+            @Parameter(description = "用户经度") @RequestParam(required = false) BigDecimal longitude,
+            WebRequest webRequest) {
+        // 距离随用户位置变化，ETag同时包含数据版本和用户位置；版本号不可用时不做条件请求判断
+        // 坐标去掉末尾的0，31.2和31.20数值相同，计算出的距离也相同，ETag应一致
+        String version = chargingStationService.getStationVersion(stationId);
+        if (version != null && webRequest.checkNotModified("\"" + version
+                + (latitude != null && longitude != null
+                        ? "-" + latitude.stripTrailingZeros().toPlainString()
+                        + "," + longitude.stripTrailingZeros().toPlainString() : "") + "\"")) {
+            return null;
+        }
         StationDetailResponse response = chargingStationService.getStationDetail(stationId, latitude, longitude);
         return Result.success(response);
     }
 
-    @Operation(summary = "获取充电站的充电桩列表", description = "获取指定充电站下的所有充电桩")
+    @Operation(summary = "批量获取充电站详情", description = "一次获取多个充电站详情，用于收藏和最近访问列表，结果流式返回")
+    @PostMapping("/detail/batch")
+    public ResponseEntity<StreamingResponseBody> getStationDetails(
+            @Valid @RequestBody StationBatchDetailRequest request) {
+        return StreamingResult.success(objectMapper, chargingStationService.getStationDetails(request));
+    }
+
+    @Operation(summary = "获取充电站的充电桩列表", description = "获取指定充电站下的所有充电桩，结果流式返回，支持If-None-Match条件请求")
     @GetMapping("/{stationId}/connectors")
-    public Result<List<ChargingConnector>> getStationConnectors(
-            @Parameter(description = "充电站ID") @PathVariable String stationId) {
-        List<ChargingConnector> connectors = chargingStationService.getStationConnectors(stationId);
-        return Result.success(connectors);
+    public ResponseEntity<StreamingResponseBody> getStationConnectors(
+            @Parameter(description = "充电站ID") @PathVariable String stationId,
+            WebRequest webRequest) {
+        String version = chargingStationService.getStationVersion(stationId);
+        if (version != null && webRequest.checkNotModified("\"" + version + "\"")) {
+            return null;
+        }
+        return StreamingResult.<ConnectorItem>success(objectMapper,
+                action -> chargingStationService.streamStationConnectors(stationId, action));
+    }
+
+    @Operation(summary = "导出地区充电桩", description = "按省、市、区导出地区内所有充电桩，结果流式返回")
+    @GetMapping("/connectors/export")
+    public ResponseEntity<StreamingResponseBody> exportRegionConnectors(
+            @Parameter(description = "省") @RequestParam(required = false) String province,
+            @Parameter(description = "市") @RequestParam(required = false) String city,
+            @Parameter(description = "区") @RequestParam(required = false) String district) {
+        if (!StringUtils.hasText(province) && !StringUtils.hasText(city)) {
+            throw new BusinessException("请至少指定省或市");
+        }
+        return StreamingResult.<ConnectorItem>success(objectMapper,
+                action -> chargingStationService.streamRegionConnectors(province, city, district, action));
     }
 
     @Operation(summary = "获取充电桩详情", description = "根据充电桩ID获取详细信息")
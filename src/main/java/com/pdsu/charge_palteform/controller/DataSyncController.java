@@ -1,15 +1,19 @@
 package com.pdsu.charge_palteform.controller;
 
+import com.pdsu.charge_palteform.cache.StationDetailCache;
 import com.pdsu.charge_palteform.common.Result;
 import com.pdsu.charge_palteform.service.DataSyncService;
 import com.pdsu.charge_palteform.service.EnergyPlatformService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+
 @Tag(name = "数据同步管理", description = "与电能平台的数据同步接口")
 @RestController
 @RequestMapping("/api/sync")
@@ -17,6 +21,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class DataSyncController {
     private final DataSyncService dataSyncService;
     private final EnergyPlatformService energyPlatformService;
+    private final StationDetailCache stationDetailCache;
 
     @Operation(summary = "测试电能平台连接", description = "测试与电能平台的连接和Token获取")
     @PostMapping("/test_connection")
@@ -61,4 +66,10 @@ public class DataSyncController {
             return Result.error("同步失败: " + e.getMessage());
         }
     }
+
+    @Operation(summary = "充电站详情缓存统计", description = "查看充电站详情缓存的命中、未命中和淘汰次数")
+    @GetMapping("/cache_stats")
+    public Result<Map<String, Object>> cacheStats() {
+        return Result.success(stationDetailCache.getStats());
+    }
 }
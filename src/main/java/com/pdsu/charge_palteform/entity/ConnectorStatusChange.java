@@ -0,0 +1,28 @@
+package com.pdsu.charge_palteform.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 充电桩状态变化，用于增量更新充电站汇总，并广播给其他实例
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConnectorStatusChange {
+
+    private String connectorId;
+
+    private String stationId;
+
+    private Integer connectorType;
+
+    private Integer fromStatus;
+
+    private Integer toStatus;
+
+    private LocalDateTime statusUpdateTime;
+}
@@ -0,0 +1,41 @@
+package com.pdsu.charge_palteform.entity;
+
+import lombok.Data;
+
+import java.util.*;
+
+/**
+ * 充电站数据变化通知，由执行同步的实例在提交并更新本地状态后广播
+ */
+@Data
+public class StationChange {
+    /**
+     * 发布实例ID，实例收到自己发布的通知时忽略
+     */
+    private String origin;
+
+    /**
+     * 充电桩状态变化
+     */
+    private List<ConnectorStatusChange> statusChanges = new ArrayList<>();
+
+    /**
+     * 基础信息或充电桩组成有变化的充电站，接收方从数据库重新加载
+     */
+    private Set<String> stationIds = new LinkedHashSet<>();
+
+    /**
+     * 充电站基础信息同步已全部完成，接收方重建联想索引
+     */
+    private boolean stationSyncCompleted;
+
+    /**
+     * 版本号纪元
+     */
+    private String epoch;
+
+    /**
+     * 本次变化后的充电站版本号计数，接收方应用变化后记录
+     */
+    private Map<String, Long> versions = new HashMap<>();
+}
@@ -0,0 +1,21 @@
+package com.pdsu.charge_palteform.entity;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 充电站查询结果（附带距离、总数等计算列）
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class StationRecord extends ChargingStation {
+    /**
+     * 距离（公里）
+     */
+    private Double distance;
+
+    /**
+     * 满足条件的总记录数（窗口函数统计，未统计时为空）
+     */
+    private Long totalCount;
+}
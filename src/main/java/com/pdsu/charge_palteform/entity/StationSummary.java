@@ -0,0 +1,70 @@
+package com.pdsu.charge_palteform.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * 充电站充电桩汇总信息
+ */
+@Data
+@TableName("station_summary")
+public class StationSummary {
+
+    /**
+     * 能力位：有直流桩
+     */
+    public static final int DC = 1;
+
+    /**
+     * 能力位：有交流桩
+     */
+    public static final int AC = 1 << 1;
+
+    /**
+     * 能力位：有空闲直流桩
+     */
+    public static final int IDLE_DC = 1 << 2;
+
+    /**
+     * 能力位：有空闲交流桩
+     */
+    public static final int IDLE_AC = 1 << 3;
+
+    @TableId(type = IdType.INPUT)
+    private String stationId;
+
+    private Integer totalConnectors;
+
+    private Integer idleConnectors;
+
+    private Integer chargingConnectors;
+
+    private Integer faultConnectors;
+
+    private Integer dcConnectors;
+
+    private Integer acConnectors;
+
+    private Integer idleDcConnectors;
+
+    private Integer idleAcConnectors;
+
+    private BigDecimal minElectricityFee;
+
+    private BigDecimal maxElectricityFee;
+
+    private BigDecimal maxRatedPower;
+
+    /**
+     * 能力位集合，见 DC、AC、IDLE_DC、IDLE_AC
+     */
+    private Integer capabilities;
+
+    public boolean hasCapability(int mask) {
+        return capabilities != null && (capabilities & mask) != 0;
+    }
+}
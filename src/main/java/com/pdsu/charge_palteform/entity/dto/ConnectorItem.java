@@ -0,0 +1,23 @@
+package com.pdsu.charge_palteform.entity.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 充电桩列表项，只包含对外展示的字段，用于流式输出
+ */
+@Data
+public class ConnectorItem {
+    private String connectorId;
+    private String stationId;
+    private String connectorName;
+    private Integer connectorType;
+    private BigDecimal ratedPower;
+    private BigDecimal currentPower;
+    private BigDecimal electricityFee;
+    private BigDecimal serviceFee;
+    private Integer status;
+    private LocalDateTime statusUpdateTime;
+}
@@ -0,0 +1,34 @@
+package com.pdsu.charge_palteform.entity.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class MapClusterRequest {
+    @NotNull(message = "视野范围不能为空")
+    @DecimalMin(value = "-90.0", message = "纬度范围错误")
+    @DecimalMax(value = "90.0", message = "纬度范围错误")
+    private BigDecimal minLatitude;
+
+    @NotNull(message = "视野范围不能为空")
+    @DecimalMin(value = "-90.0", message = "纬度范围错误")
+    @DecimalMax(value = "90.0", message = "纬度范围错误")
+    private BigDecimal maxLatitude;
+
+    @NotNull(message = "视野范围不能为空")
+    @DecimalMin(value = "-180.0", message = "经度范围错误")
+    @DecimalMax(value = "180.0", message = "经度范围错误")
+    private BigDecimal minLongitude;
+
+    @NotNull(message = "视野范围不能为空")
+    @DecimalMin(value = "-180.0", message = "经度范围错误")
+    @DecimalMax(value = "180.0", message = "经度范围错误")
+    private BigDecimal maxLongitude;
+
+    @NotNull(message = "缩放级别不能为空")
+    @Min(value = 1, message = "缩放级别最小为1")
+    @Max(value = 20, message = "缩放级别最大为20")
+    private Integer zoom;
+}
@@ -0,0 +1,24 @@
+package com.pdsu.charge_palteform.entity.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+public class MapClusterResponse {
+    private Integer zoom; // 实际使用的聚合级别
+
+    private List<Cluster> clusters;
+
+    @Data
+    public static class Cluster {
+        private Long tileX;
+        private Long tileY;
+        private Integer stationCount; // 充电站数
+        private Integer totalConnectors; // 总充电桩数
+        private Integer idleConnectors; // 空闲充电桩数
+        private BigDecimal latitude; // 聚合中心纬度
+        private BigDecimal longitude; // 聚合中心经度
+    }
+}
@@ -0,0 +1,33 @@
+package com.pdsu.charge_palteform.entity.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class NearestConnectorRequest {
+    @NotNull(message = "位置信息不能为空")
+    @DecimalMin(value = "-90.0", message = "纬度范围错误")
+    @DecimalMax(value = "90.0", message = "纬度范围错误")
+    private BigDecimal latitude;
+
+    @NotNull(message = "位置信息不能为空")
+    @DecimalMin(value = "-180.0", message = "经度范围错误")
+    @DecimalMax(value = "180.0", message = "经度范围错误")
+    private BigDecimal longitude;
+
+    @Min(value = 1, message = "返回数量最小为1")
+    @Max(value = 50, message = "返回数量最大为50")
+    private Integer limit = 10; // 返回最近的充电桩数量
+
+    private Integer connectorType; // 充电桩类型筛选：1-直流，2-交流
+
+    @DecimalMin(value = "0", message = "最低功率不能为负数")
+    private BigDecimal minPower; // 最低额定功率筛选（kW）
+
+    private Boolean onlyAvailable = true; // 只返回空闲充电桩
+
+    @DecimalMin(value = "0", message = "电费上限不能为负数")
+    private BigDecimal maxElectricityFee; // 电费上限筛选（元/度）
+}
@@ -0,0 +1,29 @@
+package com.pdsu.charge_palteform.entity.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.pdsu.charge_palteform.common.DistanceSerializer;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class NearestConnectorResponse {
+    private String stationId;
+    private String stationName;
+    private String address;
+    private BigDecimal latitude;
+    private BigDecimal longitude;
+
+    @JsonSerialize(using = DistanceSerializer.class)
+    private Double distance; // 距离（公里）
+
+    private String connectorId;
+    private String connectorName;
+    private Integer connectorType;
+    private String connectorTypeText;
+    private BigDecimal ratedPower;
+    private BigDecimal electricityFee;
+    private BigDecimal serviceFee;
+    private Integer status;
+    private String statusText;
+}
@@ -7,10 +7,13 @@ import java.util.List;
 @Data
 public class PageResponse<T> {
     private List<T> records;
-    private Long total;
+    private Long total; // 不统计总数时为空
     private Integer pageNum;
     private Integer pageSize;
     private Integer totalPages;
+    private Boolean hasMore; // 是否还有下一页
+    private String nextCursor; // 下一页游标，为空表示没有更多数据
+    private String snapshotToken; // 搜索结果快照令牌，翻页时原样传回
 
     public static <T> PageResponse<T> of(List<T> records, Long total, Integer pageNum, Integer pageSize) {
         PageResponse<T> response = new PageResponse<>();
@@ -19,6 +22,19 @@ public class PageResponse<T> {
         response.setPageNum(pageNum);
         response.setPageSize(pageSize);
         response.setTotalPages((int) Math.ceil((double) total / pageSize));
+        response.setHasMore((long) pageNum * pageSize < total);
+        return response;
+    }
+
+    /**
+     * 不统计总数的分页结果，只返回是否还有下一页
+     */
+    public static <T> PageResponse<T> ofSlice(List<T> records, boolean hasMore, Integer pageNum, Integer pageSize) {
+        PageResponse<T> response = new PageResponse<>();
+        response.setRecords(records);
+        response.setPageNum(pageNum);
+        response.setPageSize(pageSize);
+        response.setHasMore(hasMore);
         return response;
     }
 }
@@ -0,0 +1,25 @@
+package com.pdsu.charge_palteform.entity.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+public class StationBatchDetailRequest {
+    @NotEmpty(message = "充电站ID不能为空")
+    @Size(max = 100, message = "一次最多查询100个充电站")
+    private List<String> stationIds;
+
+    @DecimalMin(value = "-90.0", message = "纬度范围错误")
+    @DecimalMax(value = "90.0", message = "纬度范围错误")
+    private BigDecimal latitude; // 用户纬度，传入时计算距离
+
+    @DecimalMin(value = "-180.0", message = "经度范围错误")
+    @DecimalMax(value = "180.0", message = "经度范围错误")
+    private BigDecimal longitude; // 用户经度，传入时计算距离
+}
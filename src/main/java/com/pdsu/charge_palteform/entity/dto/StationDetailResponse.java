@@ -1,12 +1,18 @@
 package com.pdsu.charge_palteform.entity.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.pdsu.charge_palteform.common.DistanceSerializer;
+import com.pdsu.charge_palteform.common.StationDetailResponseSerializer;
 import lombok.Data;
 
 import java.math.BigDecimal;
 import java.util.List;
 
 @Data
-public class StationDetailResponse {
+@JsonSerialize(using = StationDetailResponseSerializer.class)
+public class StationDetailResponse implements StationStaticFields {
     private String stationId;
     private String stationName;
     private String address;
@@ -19,8 +25,13 @@ public class StationDetailResponse {
     private Integer stationStatus;
     private String statusText; // 状态文本描述
 
+    // 静态字段预序列化片段
+    @JsonIgnore
+    private SerializableString staticFragment;
+
     // 距离信息
-    private BigDecimal distance; // 距离（公里）
+    @JsonSerialize(using = DistanceSerializer.class)
+    private Double distance; // 距离（公里）
 
     // 充电桩统计信息
     private Integer totalConnectors; // 总充电桩数
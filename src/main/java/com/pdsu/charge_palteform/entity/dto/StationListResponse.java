@@ -1,11 +1,17 @@
 package com.pdsu.charge_palteform.entity.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.pdsu.charge_palteform.common.DistanceSerializer;
+import com.pdsu.charge_palteform.common.StationListResponseSerializer;
 import lombok.Data;
 
 import java.math.BigDecimal;
 
 @Data
-public class StationListResponse {
+@JsonSerialize(using = StationListResponseSerializer.class)
+public class StationListResponse implements StationStaticFields {
     private String stationId;
     private String stationName;
     private String address;
@@ -13,12 +19,18 @@ public class StationListResponse {
     private BigDecimal latitude;
     private String stationTel;
     private BigDecimal serviceFee;
+    private String parkingFee;
     private String openingHours;
     private Integer stationStatus;
     private String statusText;
 
+    // 静态字段预序列化片段
+    @JsonIgnore
+    private SerializableString staticFragment;
+
     // 距离信息
-    private BigDecimal distance; // 距离（公里）
+    @JsonSerialize(using = DistanceSerializer.class)
+    private Double distance; // 距离（公里）
 
     // 充电桩统计信息
     private Integer totalConnectors;
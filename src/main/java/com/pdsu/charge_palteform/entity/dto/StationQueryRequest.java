@@ -29,9 +29,25 @@ public class StationQueryRequest {
     @Max(value = 50, message = "页面大小最大为50")
     private Integer pageSize = 10;
 
+    private String cursor; // 分页游标，传入时从上一页末尾继续查询，忽略pageNum
+
+    private Boolean countTotal = true; // 是否统计总数，为false时只返回hasMore
+
+    private Integer sortType = 1; // 排序方式：1-距离优先，2-综合推荐（距离、空闲桩数、故障率加权）
+
     private String keyword; // 搜索关键词
 
+    private String snapshotToken; // 搜索结果快照令牌，翻页时传入上一页返回的值
+
     private Integer connectorType; // 充电桩类型筛选：1-直流，2-交流
 
+    @DecimalMin(value = "0", message = "最低功率不能为负数")
+    private BigDecimal minPower; // 最低额定功率筛选（kW）
+
+    private Boolean onlyAvailable; // 只看当前有空闲充电桩的充电站
+
+    @DecimalMin(value = "0", message = "电费上限不能为负数")
+    private BigDecimal maxElectricityFee; // 电费上限筛选（元/度）
+
     private Integer status; // 充电站状态筛选
 }
@@ -0,0 +1,37 @@
+package com.pdsu.charge_palteform.entity.dto;
+
+import com.fasterxml.jackson.core.SerializableString;
+
+import java.math.BigDecimal;
+
+/**
+ * 充电站静态字段，只随每日充电站信息同步变化
+ */
+public interface StationStaticFields {
+    String getStationId();
+
+    String getStationName();
+
+    String getAddress();
+
+    BigDecimal getLongitude();
+
+    BigDecimal getLatitude();
+
+    String getStationTel();
+
+    BigDecimal getServiceFee();
+
+    String getParkingFee();
+
+    String getOpeningHours();
+
+    Integer getStationStatus();
+
+    String getStatusText();
+
+    /**
+     * 预序列化的静态字段JSON片段，为空时逐个字段序列化
+     */
+    SerializableString getStaticFragment();
+}
@@ -0,0 +1,10 @@
+package com.pdsu.charge_palteform.entity.dto;
+
+import lombok.Data;
+
+@Data
+public class StationSuggestion {
+    private String stationId;
+    private String stationName;
+    private String address;
+}
@@ -0,0 +1,26 @@
+package com.pdsu.charge_palteform.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum StationSortTypeEnum {
+    DISTANCE(1, "距离优先"),
+    AVAILABILITY(2, "综合推荐");
+
+    private final Integer code;
+    private final String desc;
+
+    StationSortTypeEnum(Integer code, String desc) {
+        this.code = code;
+        this.desc = desc;
+    }
+
+    public static String getDesc(Integer code) {
+        for (StationSortTypeEnum type : values()) {
+            if (type.getCode().equals(code)) {
+                return type.getDesc();
+            }
+        }
+        return "未知";
+    }
+}
@@ -0,0 +1,522 @@
+package com.pdsu.charge_palteform.index;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.pdsu.charge_palteform.config.ConnectorStatusStoreConfig;
+import com.pdsu.charge_palteform.entity.ChargingConnector;
+import com.pdsu.charge_palteform.mapper.ChargingConnectorMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 充电桩实时状态存储，定长记录保存在内存映射文件中，重启后直接从文件恢复
+ * <p>
+ * 每条记录为充电桩ID、充电站ID、一个8字节状态字（状态、类型、状态更新时间、待写回标记）
+ * 和充电站ID的版本号。状态字通过VarHandle原子读写，读取和状态更新都不加锁；
+ * 充电站ID变更时在分配锁内按版本号（seqlock）发布，读取方版本号前后不一致时重读。
+ * <p>
+ * 状态变化时在同一次CAS中置待写回标记，后台线程定期写回数据库，写入成功后才清除标记。
+ * 进程异常退出后，重启时按文件中的标记恢复待写回集合，并与数据库对账：
+ * 无待写回标记的记录以数据库为准，待写回的记录比数据库旧时（期间由其他实例同步过）也以数据库为准，
+ * 数据库中新增的充电桩补入文件。
+ * <p>
+ * 多实例部署时每个实例持有各自的状态文件，同一个文件不能由多个实例同时打开。
+ * 充电桩状态只由持有同步租约的实例轮询（{@link #updateStatus}，写回数据库），
+ * 其他实例通过广播收到状态变化后以 {@link #put} 写入本地文件，不写回数据库。
+ * 广播丢失时该充电桩在下次状态变化或本实例重启对账后恢复一致。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConnectorStatusStore {
+
+    private static final int MAGIC = 0x43535453;
+    private static final int FORMAT_VERSION = 2;
+
+    /**
+     * 文件头：魔数、格式版本、记录数、是否已完成初始加载
+     */
+    private static final int HEADER_SIZE = 64;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int COUNT_OFFSET = 8;
+    private static final int WARMED_OFFSET = 12;
+
+    /**
+     * 记录：充电桩ID 32字节 + 充电站ID 32字节 + 状态字 8字节 + 充电站ID版本号 8字节
+     */
+    private static final int ID_LENGTH = 32;
+    private static final int STATION_OFFSET = ID_LENGTH;
+    private static final int STATE_OFFSET = ID_LENGTH * 2;
+    private static final int SEQ_OFFSET = STATE_OFFSET + 8;
+    private static final int RECORD_SIZE = SEQ_OFFSET + 8;
+
+    /**
+     * 状态字最高位：状态已变化但尚未写回数据库
+     */
+    private static final long DIRTY = 1L << 63;
+    private static final long MILLIS_MASK = (1L << 47) - 1;
+
+    /**
+     * 关闭时等待正在执行的写回完成的最长时间（秒）
+     */
+    private static final int CLOSE_TIMEOUT_SECONDS = 10;
+
+    /**
+     * 写回数据库时每条语句的最大行数
+     */
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final ConnectorStatusStoreConfig config;
+    private final ChargingConnectorMapper connectorMapper;
+
+    /**
+     * 充电桩ID -> 记录序号
+     */
+    private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+
+    /**
+     * 待写回数据库的充电桩ID，与记录中的待写回标记一致，重启时从标记恢复
+     */
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    private final Object allocationLock = new Object();
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private ScheduledExecutorService flusher;
+    private volatile boolean ready = false;
+
+    /**
+     * 打开状态文件，新文件从数据库加载全部充电桩状态，已有文件与数据库对账
+     */
+    public synchronized void open() throws IOException {
+        if (!config.isEnabled() || ready) {
+            return;
+        }
+        Path path = Paths.get(config.getPath());
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        long size = HEADER_SIZE + (long) config.getCapacity() * RECORD_SIZE;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, channel.size()));
+
+        int magic = (int) INT.get(buffer, MAGIC_OFFSET);
+        boolean warmed = magic == MAGIC
+                && (int) INT.get(buffer, VERSION_OFFSET) == FORMAT_VERSION
+                && (int) INT.get(buffer, WARMED_OFFSET) == 1;
+        if (warmed) {
+            int count = (int) INT.getAcquire(buffer, COUNT_OFFSET);
+            for (int slot = 0; slot < count; slot++) {
+                int offset = recordOffset(slot);
+                String connectorId = readId(offset);
+                slots.put(connectorId, slot);
+                long seq = (long) LONG.get(buffer, offset + SEQ_OFFSET);
+                if ((seq & 1) != 0) {
+                    // 上次退出时充电站ID写到一半，版本号恢复为偶数，ID由对账修正
+                    LONG.set(buffer, offset + SEQ_OFFSET, seq + 1);
+                }
+                if (((long) LONG.get(buffer, offset + STATE_OFFSET) & DIRTY) != 0) {
+                    dirty.add(connectorId);
+                }
+            }
+            log.info("充电桩状态文件加载完成，共{}个充电桩，{}个待写回", count, dirty.size());
+            try {
+                reconcileWithDatabase();
+            } catch (RuntimeException e) {
+                slots.clear();
+                dirty.clear();
+                channel.close();
+                throw e;
+            }
+            buffer.force();
+        } else {
+            INT.set(buffer, MAGIC_OFFSET, MAGIC);
+            INT.set(buffer, VERSION_OFFSET, FORMAT_VERSION);
+            INT.setRelease(buffer, COUNT_OFFSET, 0);
+            INT.setRelease(buffer, WARMED_OFFSET, 0);
+            try {
+                warmFromDatabase();
+            } catch (RuntimeException e) {
+                // 初始加载未完成，文件保持未初始化状态，下次启动重新加载
+                slots.clear();
+                channel.close();
+                throw e;
+            }
+            INT.setRelease(buffer, WARMED_OFFSET, 1);
+            buffer.force();
+        }
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connector-status-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly,
+                config.getFlushInterval(), config.getFlushInterval(), TimeUnit.MILLISECONDS);
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 获取充电桩当前状态，不存在时返回null
+     */
+    public ConnectorState get(String connectorId) {
+        Integer slot = slots.get(connectorId);
+        if (slot == null) {
+            return null;
+        }
+        int offset = recordOffset(slot);
+        return toState(connectorId, readStationId(offset), (long) LONG.getAcquire(buffer, offset + STATE_OFFSET));
+    }
+
+    /**
+     * 写入充电桩完整信息，不存在时分配新记录，用于调用方已直接写入数据库的充电桩同步
+     * <p>
+     * 状态未变化时保留原状态更新时间
+     *
+     * @return 写入前的状态，新充电桩返回null
+     */
+    public ConnectorState put(String connectorId, String stationId, Integer connectorType, Integer status,
+                              LocalDateTime statusUpdateTime) {
+        long state = pack(status, connectorType, statusUpdateTime);
+        Integer slot = slots.get(connectorId);
+        if (slot == null || !stationId.equals(readStationId(recordOffset(slot)))) {
+            synchronized (allocationLock) {
+                slot = slots.get(connectorId);
+                if (slot == null) {
+                    allocate(connectorId, stationId, state);
+                    return null;
+                }
+                writeStationId(recordOffset(slot), stationId);
+            }
+        }
+        int offset = recordOffset(slot);
+        long previous;
+        long next;
+        do {
+            previous = (long) LONG.getAcquire(buffer, offset + STATE_OFFSET);
+            // 待写回标记保留，由写回清除
+            next = statusOf(previous) == statusOf(state) ? (state & 0xffff) | (previous & ~0xffffL)
+                    : state | (previous & DIRTY);
+        } while (!LONG.compareAndSet(buffer, offset + STATE_OFFSET, previous, next));
+        return toState(connectorId, stationId, previous);
+    }
+
+    /**
+     * 更新已存在充电桩的状态，保留类型，状态未变化时不写入，保留原状态更新时间
+     *
+     * @return 更新前的状态，充电桩不存在时返回null且不写入
+     */
+    public ConnectorState updateStatus(String connectorId, int status, LocalDateTime statusUpdateTime) {
+        Integer slot = slots.get(connectorId);
+        if (slot == null) {
+            return null;
+        }
+        int offset = recordOffset(slot);
+        long previous;
+        long next;
+        do {
+            previous = (long) LONG.getAcquire(buffer, offset + STATE_OFFSET);
+            if (statusOf(previous) == (status & 0xff)) {
+                return toState(connectorId, readStationId(offset), previous);
+            }
+            next = pack(status, typeOf(previous), statusUpdateTime) | DIRTY;
+        } while (!LONG.compareAndSet(buffer, offset + STATE_OFFSET, previous, next));
+        dirty.add(connectorId);
+        return toState(connectorId, readStationId(offset), previous);
+    }
+
+    /**
+     * 把待写回的状态写入数据库，每批一条多行更新语句，写入成功后清除记录中的待写回标记
+     */
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<String> pending = new ArrayList<>(dirty);
+        // 先移出待写回集合再读取最新状态，写回期间的新变化会在下一轮写回
+        pending.forEach(dirty::remove);
+        int written = 0;
+        try {
+            while (written < pending.size()) {
+                List<String> ids = pending.subList(written, Math.min(written + FLUSH_BATCH_SIZE, pending.size()));
+                List<ChargingConnector> batch = new ArrayList<>(ids.size());
+                int[] offsets = new int[ids.size()];
+                long[] states = new long[ids.size()];
+                for (String connectorId : ids) {
+                    Integer slot = slots.get(connectorId);
+                    if (slot == null) {
+                        continue;
+                    }
+                    int offset = recordOffset(slot);
+                    long state = (long) LONG.getAcquire(buffer, offset + STATE_OFFSET);
+                    if ((state & DIRTY) == 0) {
+                        continue;
+                    }
+                    offsets[batch.size()] = offset;
+                    states[batch.size()] = state;
+                    ConnectorState current = toState(connectorId, null, state);
+                    ChargingConnector connector = new ChargingConnector();
+                    connector.setConnectorId(connectorId);
+                    connector.setStatus(current.getStatus());
+                    connector.setStatusUpdateTime(current.getStatusUpdateTime());
+                    batch.add(connector);
+                }
+                if (!batch.isEmpty()) {
+                    connectorMapper.updateStatusBatch(batch);
+                    for (int i = 0; i < batch.size(); i++) {
+                        // 写回期间状态又变化时CAS失败，保留标记，新状态已重新加入待写回集合
+                        LONG.compareAndSet(buffer, offsets[i] + STATE_OFFSET, states[i], states[i] & ~DIRTY);
+                    }
+                }
+                written += ids.size();
+            }
+        } catch (Exception e) {
+            // 未写回的重新标记，下一轮重试
+            dirty.addAll(pending.subList(written, pending.size()));
+            throw e;
+        }
+        buffer.force();
+        log.debug("充电桩状态写回数据库{}条", written);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (!ready) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            if (flusher.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                flushQuietly();
+            } else {
+                // 未写回的记录保留待写回标记，下次启动时写回
+                log.warn("等待充电桩状态写回超时，未写回的状态将在下次启动时写回");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            log.warn("关闭充电桩状态文件失败: {}", e.getMessage());
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("充电桩状态写回数据库失败: {}", e.getMessage());
+        }
+    }
+
+    private void warmFromDatabase() {
+        List<ChargingConnector> connectors = selectAllStates();
+        synchronized (allocationLock) {
+            for (ChargingConnector connector : connectors) {
+                allocate(connector.getConnectorId(), connector.getStationId(),
+                        pack(connector.getStatus(), connector.getConnectorType(), connector.getStatusUpdateTime()));
+            }
+        }
+        log.info("充电桩状态文件初始化完成，从数据库加载{}个充电桩", connectors.size());
+    }
+
+    /**
+     * 已有文件与数据库对账：待写回的记录不比数据库旧时以文件为准，其余以数据库为准，数据库中新增的充电桩补入文件
+     */
+    private void reconcileWithDatabase() {
+        List<ChargingConnector> connectors = selectAllStates();
+        int updated = 0;
+        int added = 0;
+        synchronized (allocationLock) {
+            for (ChargingConnector connector : connectors) {
+                long state = pack(connector.getStatus(), connector.getConnectorType(),
+                        connector.getStatusUpdateTime());
+                Integer slot = slots.get(connector.getConnectorId());
+                if (slot == null) {
+                    allocate(connector.getConnectorId(), connector.getStationId(), state);
+                    added++;
+                    continue;
+                }
+                int offset = recordOffset(slot);
+                if (dirty.contains(connector.getConnectorId())) {
+                    long current = (long) LONG.getAcquire(buffer, offset + STATE_OFFSET);
+                    if (millisOf(current) >= millisOf(state)) {
+                        continue;
+                    }
+                    // 停机期间其他实例已同步过更新的状态，未写回的旧状态丢弃
+                    dirty.remove(connector.getConnectorId());
+                }
+                boolean changed = false;
+                if (!connector.getStationId().equals(readStationId(offset))) {
+                    writeStationId(offset, connector.getStationId());
+                    changed = true;
+                }
+                if ((long) LONG.getAcquire(buffer, offset + STATE_OFFSET) != state) {
+                    LONG.setRelease(buffer, offset + STATE_OFFSET, state);
+                    changed = true;
+                }
+                if (changed) {
+                    updated++;
+                }
+            }
+        }
+        log.info("充电桩状态文件与数据库对账完成，更新{}个、新增{}个充电桩", updated, added);
+    }
+
+    private List<ChargingConnector> selectAllStates() {
+        return connectorMapper.selectList(new LambdaQueryWrapper<ChargingConnector>()
+                .select(ChargingConnector::getConnectorId, ChargingConnector::getStationId,
+                        ChargingConnector::getConnectorType, ChargingConnector::getStatus,
+                        ChargingConnector::getStatusUpdateTime));
+    }
+
+    /**
+     * 分配记录，先写入记录内容，再发布记录数和索引
+     */
+    private int allocate(String connectorId, String stationId, long state) {
+        int slot = (int) INT.getAcquire(buffer, COUNT_OFFSET);
+        if (slot >= config.getCapacity()) {
+            throw new IllegalStateException("充电桩状态文件已满，容量" + config.getCapacity());
+        }
+        int offset = recordOffset(slot);
+        writeId(offset, toIdBytes(connectorId));
+        writeId(offset + STATION_OFFSET, toIdBytes(stationId));
+        LONG.set(buffer, offset + SEQ_OFFSET, 0L);
+        LONG.setRelease(buffer, offset + STATE_OFFSET, state);
+        INT.setRelease(buffer, COUNT_OFFSET, slot + 1);
+        slots.put(connectorId, slot);
+        return slot;
+    }
+
+    private static int recordOffset(int slot) {
+        return HEADER_SIZE + slot * RECORD_SIZE;
+    }
+
+    private static byte[] toIdBytes(String id) {
+        byte[] bytes = id.getBytes(StandardCharsets.US_ASCII);
+        if (bytes.length > ID_LENGTH) {
+            throw new IllegalArgumentException("ID超过" + ID_LENGTH + "字节: " + id);
+        }
+        return bytes;
+    }
+
+    /**
+     * 修改已发布记录的充电站ID，调用方持有分配锁：版本号先置为奇数，写完ID后再置为下一个偶数
+     */
+    private void writeStationId(int offset, String stationId) {
+        byte[] bytes = toIdBytes(stationId);
+        long seq = (long) LONG.getOpaque(buffer, offset + SEQ_OFFSET);
+        LONG.setOpaque(buffer, offset + SEQ_OFFSET, seq + 1);
+        VarHandle.storeStoreFence();
+        writeId(offset + STATION_OFFSET, bytes);
+        LONG.setRelease(buffer, offset + SEQ_OFFSET, seq + 2);
+    }
+
+    private void writeId(int offset, byte[] bytes) {
+        for (int i = 0; i < ID_LENGTH; i++) {
+            buffer.put(offset + i, i < bytes.length ? bytes[i] : 0);
+        }
+    }
+
+    private String readId(int offset) {
+        int length = 0;
+        while (length < ID_LENGTH && buffer.get(offset + length) != 0) {
+            length++;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * 读取充电站ID，写入中（版本号为奇数）或读取前后版本号不一致时重读
+     */
+    private String readStationId(int offset) {
+        while (true) {
+            long seq = (long) LONG.getAcquire(buffer, offset + SEQ_OFFSET);
+            if ((seq & 1) == 0) {
+                String stationId = readId(offset + STATION_OFFSET);
+                VarHandle.loadLoadFence();
+                if ((long) LONG.getOpaque(buffer, offset + SEQ_OFFSET) == seq) {
+                    return stationId;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * 状态字：低8位状态，8-15位类型，16-62位状态更新时间（毫秒），最高位待写回标记
+     */
+    private static long pack(Integer status, Integer connectorType, LocalDateTime statusUpdateTime) {
+        long millis = statusUpdateTime == null ? 0
+                : statusUpdateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return ((millis & MILLIS_MASK) << 16) | ((long) (connectorType == null ? 0 : connectorType & 0xff) << 8)
+                | (status == null ? 0 : status & 0xff);
+    }
+
+    private static int statusOf(long state) {
+        return (int) (state & 0xff);
+    }
+
+    private static int typeOf(long state) {
+        return (int) ((state >>> 8) & 0xff);
+    }
+
+    private static long millisOf(long state) {
+        return (state >>> 16) & MILLIS_MASK;
+    }
+
+    private static ConnectorState toState(String connectorId, String stationId, long state) {
+        long millis = millisOf(state);
+        return new ConnectorState(connectorId, stationId, typeOf(state), statusOf(state),
+                millis == 0 ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()));
+    }
+
+    /**
+     * 充电桩状态
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class ConnectorState {
+        private final String connectorId;
+        private final String stationId;
+        private final int connectorType;
+        private final int status;
+        private final LocalDateTime statusUpdateTime;
+    }
+}
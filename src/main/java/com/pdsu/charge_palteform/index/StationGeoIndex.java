@@ -0,0 +1,325 @@
+package com.pdsu.charge_palteform.index;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.pdsu.charge_palteform.entity.ChargingStation;
+import com.pdsu.charge_palteform.enums.StationStatusEnum;
+import com.pdsu.charge_palteform.mapper.ChargingStationMapper;
+import com.pdsu.charge_palteform.utils.GeoUtil;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 运营中充电站的内存网格空间索引
+ * <p>
+ * 按固定经纬度步长把充电站划分到网格中，半径查询只扫描外接矩形覆盖的网格，
+ * 每个网格的坐标以double数组保存，整格批量计算距离。
+ * 启动时从数据库全量加载，之后由数据同步增量维护。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StationGeoIndex {
+
+    /**
+     * 网格步长（度），约5.5公里
+     */
+    private static final double CELL_SIZE = 0.05;
+
+    /**
+     * 最近邻查询的最大扩展距离（公里）
+     */
+    private static final double MAX_NEAREST_KM = 500;
+
+    private final ChargingStationMapper stationMapper;
+
+    /**
+     * 网格 -> 网格内充电站
+     */
+    private volatile Map<Long, Cell> cells = new ConcurrentHashMap<>();
+
+    /**
+     * 充电站ID -> 充电站
+     */
+    private volatile Map<String, ChargingStation> stations = new ConcurrentHashMap<>();
+
+    private volatile boolean ready = false;
+
+    /**
+     * 从数据库全量重建索引
+     */
+    public synchronized void rebuild() {
+        List<ChargingStation> list = stationMapper.selectList(new LambdaQueryWrapper<ChargingStation>()
+                .eq(ChargingStation::getStationStatus, StationStatusEnum.OPERATING.getCode())
+                .isNotNull(ChargingStation::getLatitude)
+                .isNotNull(ChargingStation::getLongitude));
+
+        Map<Long, List<ChargingStation>> grouped = new HashMap<>();
+        Map<String, ChargingStation> newStations = new ConcurrentHashMap<>();
+        for (ChargingStation station : list) {
+            newStations.put(station.getStationId(), station);
+            grouped.computeIfAbsent(cellKey(station), k -> new ArrayList<>()).add(station);
+        }
+        Map<Long, Cell> newCells = new ConcurrentHashMap<>();
+        grouped.forEach((key, members) -> newCells.put(key, Cell.of(members)));
+
+        this.cells = newCells;
+        this.stations = newStations;
+        this.ready = true;
+        log.info("充电站空间索引构建完成，共{}个充电站，{}个网格", newStations.size(), newCells.size());
+    }
+
+    /**
+     * 新增或更新充电站，非运营中或无坐标的充电站会被移出索引
+     */
+    public synchronized void upsert(ChargingStation station) {
+        remove(station.getStationId());
+        if (!isIndexable(station)) {
+            return;
+        }
+        stations.put(station.getStationId(), station);
+        cells.compute(cellKey(station), (k, cell) -> cell == null
+                ? Cell.of(List.of(station)) : cell.with(station));
+    }
+
+    /**
+     * 移除充电站
+     */
+    public synchronized void remove(String stationId) {
+        ChargingStation old = stations.remove(stationId);
+        if (old == null) {
+            return;
+        }
+        cells.computeIfPresent(cellKey(old), (k, cell) -> cell.without(stationId));
+    }
+
+    /**
+     * 查询半径范围内的充电站，按距离升序（距离相同按充电站ID）排列
+     */
+    public List<Hit> queryNearby(double latitude, double longitude, double radiusKm) {
+        double[] box = GeoUtil.boundingBox(latitude, longitude, radiusKm);
+        long minRow = cellIndex(box[0]);
+        long maxRow = cellIndex(box[1]);
+        long minCol = cellIndex(box[2]);
+        long maxCol = cellIndex(box[3]);
+
+        Map<Long, Cell> snapshot = this.cells;
+        List<Hit> hits = new ArrayList<>();
+        double[] distances = new double[16];
+        for (long row = minRow; row <= maxRow; row++) {
+            for (long col = minCol; col <= maxCol; col++) {
+                Cell cell = snapshot.get(key(row, col));
+                if (cell == null) {
+                    continue;
+                }
+                int size = cell.stations.length;
+                if (distances.length < size) {
+                    distances = new double[size];
+                }
+                GeoUtil.distancesKm(latitude, longitude, cell.lats, cell.lngs, distances, size);
+                for (int i = 0; i < size; i++) {
+                    if (distances[i] <= radiusKm) {
+                        hits.add(new Hit(cell.stations[i], distances[i]));
+                    }
+                }
+            }
+        }
+
+        hits.sort(Comparator.comparingDouble(Hit::getDistance)
+                .thenComparing(hit -> hit.getStation().getStationId()));
+        return hits;
+    }
+
+    /**
+     * 按距离由近到远逐个返回充电站，以中心网格为起点逐圈向外扩展，不限定半径
+     * <p>
+     * 只有当候选充电站距离不大于已扫描区域边界的最近距离时才返回，保证返回顺序严格按距离递增
+     */
+    public Iterator<Hit> nearest(double latitude, double longitude) {
+        return new NearestIterator(latitude, longitude, this.cells);
+    }
+
+    public ChargingStation get(String stationId) {
+        return stations.get(stationId);
+    }
+
+    public Collection<ChargingStation> getAll() {
+        return Collections.unmodifiableCollection(stations.values());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return stations.size();
+    }
+
+    private boolean isIndexable(ChargingStation station) {
+        return StationStatusEnum.OPERATING.getCode().equals(station.getStationStatus())
+                && station.getLatitude() != null
+                && station.getLongitude() != null;
+    }
+
+    private long cellKey(ChargingStation station) {
+        return key(cellIndex(station.getLatitude().doubleValue()), cellIndex(station.getLongitude().doubleValue()));
+    }
+
+    private static long cellIndex(double degree) {
+        return (long) Math.floor(degree / CELL_SIZE);
+    }
+
+    private static long key(long row, long col) {
+        return (row << 32) | (col & 0xffffffffL);
+    }
+
+    /**
+     * 逐圈扩展的最近邻迭代器
+     */
+    private static final class NearestIterator implements Iterator<Hit> {
+        private final double latitude;
+        private final double longitude;
+        private final long centerRow;
+        private final long centerCol;
+        private final int maxRing;
+        private final Map<Long, Cell> snapshot;
+        private final PriorityQueue<Hit> pending = new PriorityQueue<>(
+                Comparator.comparingDouble(Hit::getDistance).thenComparing(hit -> hit.getStation().getStationId()));
+        private double[] distances = new double[16];
+        private int ring = -1;
+
+        NearestIterator(double latitude, double longitude, Map<Long, Cell> snapshot) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.centerRow = cellIndex(latitude);
+            this.centerCol = cellIndex(longitude);
+            this.maxRing = (int) Math.ceil(MAX_NEAREST_KM / (Math.toRadians(CELL_SIZE) * GeoUtil.EARTH_RADIUS_KM));
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (true) {
+                if (!pending.isEmpty() && pending.peek().getDistance() <= exploredBound()) {
+                    return true;
+                }
+                if (ring >= maxRing) {
+                    return !pending.isEmpty();
+                }
+                expandRing();
+            }
+        }
+
+        @Override
+        public Hit next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return pending.poll();
+        }
+
+        /**
+         * 扫描下一圈网格
+         */
+        private void expandRing() {
+            ring++;
+            for (long row = centerRow - ring; row <= centerRow + ring; row++) {
+                boolean edgeRow = row == centerRow - ring || row == centerRow + ring;
+                long step = edgeRow || ring == 0 ? 1 : 2L * ring;
+                for (long col = centerCol - ring; col <= centerCol + ring; col += step) {
+                    scanCell(snapshot.get(key(row, col)));
+                }
+            }
+        }
+
+        private void scanCell(Cell cell) {
+            if (cell == null) {
+                return;
+            }
+            int size = cell.stations.length;
+            if (distances.length < size) {
+                distances = new double[size];
+            }
+            GeoUtil.distancesKm(latitude, longitude, cell.lats, cell.lngs, distances, size);
+            for (int i = 0; i < size; i++) {
+                pending.add(new Hit(cell.stations[i], distances[i]));
+            }
+        }
+
+        /**
+         * 已扫描区域之外的充电站与查询点的最小可能距离（公里）
+         */
+        private double exploredBound() {
+            if (ring < 0) {
+                return -1;
+            }
+            double minLat = (centerRow - ring) * CELL_SIZE;
+            double maxLat = (centerRow + ring + 1) * CELL_SIZE;
+            double minLng = (centerCol - ring) * CELL_SIZE;
+            double maxLng = (centerCol + ring + 1) * CELL_SIZE;
+
+            // 纬度方向：沿经线的距离即为下界
+            double latBound = Math.toRadians(Math.min(latitude - minLat, maxLat - latitude)) * GeoUtil.EARTH_RADIUS_KM;
+            // 经度方向：取已扫描范围内纬度绝对值最大处的纬圈收缩系数
+            double maxAbsLat = Math.min(90, Math.max(Math.abs(minLat), Math.abs(maxLat)));
+            double deltaLng = Math.toRadians(Math.min(longitude - minLng, maxLng - longitude));
+            double lngBound = 2 * GeoUtil.EARTH_RADIUS_KM
+                    * Math.asin(Math.min(1, Math.cos(Math.toRadians(maxAbsLat)) * Math.sin(deltaLng / 2)));
+            return Math.min(latBound, lngBound);
+        }
+    }
+
+    /**
+     * 网格，内容不可变，变更时整体替换
+     */
+    private static final class Cell {
+        private final ChargingStation[] stations;
+        private final double[] lats;
+        private final double[] lngs;
+
+        private Cell(ChargingStation[] stations) {
+            this.stations = stations;
+            this.lats = new double[stations.length];
+            this.lngs = new double[stations.length];
+            for (int i = 0; i < stations.length; i++) {
+                lats[i] = stations[i].getLatitude().doubleValue();
+                lngs[i] = stations[i].getLongitude().doubleValue();
+            }
+        }
+
+        static Cell of(List<ChargingStation> stations) {
+            return new Cell(stations.toArray(new ChargingStation[0]));
+        }
+
+        Cell with(ChargingStation station) {
+            ChargingStation[] next = Arrays.copyOf(stations, stations.length + 1);
+            next[stations.length] = station;
+            return new Cell(next);
+        }
+
+        /**
+         * 移除充电站，移除后为空时返回null
+         */
+        Cell without(String stationId) {
+            ChargingStation[] next = Arrays.stream(stations)
+                    .filter(station -> !station.getStationId().equals(stationId))
+                    .toArray(ChargingStation[]::new);
+            return next.length == 0 ? null : new Cell(next);
+        }
+    }
+
+    /**
+     * 查询命中结果
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Hit {
+        private final ChargingStation station;
+        private final double distance;
+    }
+}
@@ -0,0 +1,273 @@
+package com.pdsu.charge_palteform.index;
+
+import com.pdsu.charge_palteform.entity.ChargingStation;
+import com.pdsu.charge_palteform.mapper.ChargingStationMapper;
+import com.pdsu.charge_palteform.utils.GeoUtil;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 充电站名称和地址的内存倒排索引
+ * <p>
+ * 文本按单字和相邻两字切分为词项，名称中出现的词项权重高于地址。
+ * 查询时取关键词全部二元词项（单字关键词取单字词项）的倒排表求交，
+ * 再确认名称或地址包含完整关键词（只统一大小写，空白原样保留），
+ * 结果与数据库回退查询的 LIKE '%keyword%' 一致，
+ * 按词频得分排序，传入用户位置时得分按距离衰减。
+ * 启动时从数据库全量加载，之后由数据同步增量维护。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StationSearchIndex {
+
+    /**
+     * 名称中词项的权重，地址为1
+     */
+    private static final int NAME_WEIGHT = 2;
+
+    /**
+     * 距离衰减尺度（公里），距离为该值时文本得分减半
+     */
+    private static final double DISTANCE_DECAY_KM = 5;
+
+    /**
+     * 得分降序，得分相同按距离升序，再按主键升序
+     */
+    private static final Comparator<Scored> RANKING = Comparator.comparingDouble((Scored s) -> -s.score)
+            .thenComparingDouble(s -> s.distance)
+            .thenComparing(s -> s.doc.station.getId(), Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final ChargingStationMapper stationMapper;
+
+    /**
+     * 词项 -> (充电站ID -> 加权词频)
+     */
+    private volatile Map<String, Map<String, Integer>> postings = new ConcurrentHashMap<>();
+
+    /**
+     * 充电站ID -> 索引文档
+     */
+    private volatile Map<String, Doc> docs = new ConcurrentHashMap<>();
+
+    private volatile boolean ready = false;
+
+    /**
+     * 从数据库全量重建索引
+     */
+    public synchronized void rebuild() {
+        List<ChargingStation> list = stationMapper.selectList(null);
+        Map<String, Map<String, Integer>> newPostings = new ConcurrentHashMap<>();
+        Map<String, Doc> newDocs = new ConcurrentHashMap<>();
+        for (ChargingStation station : list) {
+            Doc doc = new Doc(station);
+            newDocs.put(station.getStationId(), doc);
+            addPostings(newPostings, doc);
+        }
+        this.postings = newPostings;
+        this.docs = newDocs;
+        this.ready = true;
+        log.info("充电站搜索索引构建完成，共{}个充电站，{}个词项", newDocs.size(), newPostings.size());
+    }
+
+    /**
+     * 新增或更新充电站
+     */
+    public synchronized void upsert(ChargingStation station) {
+        Doc old = docs.get(station.getStationId());
+        if (old != null) {
+            removePostings(old);
+        }
+        Doc doc = new Doc(station);
+        docs.put(station.getStationId(), doc);
+        addPostings(postings, doc);
+    }
+
+    /**
+     * 搜索指定状态的充电站，只保留排序后的前limit个，关键词为空时匹配全部
+     * <p>
+     * 传入用户位置时文本得分按距离衰减：得分 / (1 + 距离 / DISTANCE_DECAY_KM)，
+     * 无坐标的充电站按最远处理；未传位置时按文本得分排序。
+     * 文本匹配在遍历倒排表时即计算排序值，用大小为limit的堆截断，不保留全部匹配结果。
+     *
+     * @param latitude  用户纬度，可为空
+     * @param longitude 用户经度，可为空
+     */
+    public SearchResult search(String keyword, Integer stationStatus, Double latitude, Double longitude, int limit) {
+        String query = normalize(keyword);
+        boolean located = latitude != null && longitude != null;
+        Map<String, Doc> docSnapshot = this.docs;
+        // 堆顶为当前最差的结果
+        PriorityQueue<Scored> top = new PriorityQueue<>(Math.max(1, limit) + 1, RANKING.reversed());
+        int total = 0;
+
+        Iterable<String> candidates;
+        List<Map<String, Integer>> lists = new ArrayList<>();
+        if (query.isEmpty()) {
+            candidates = docSnapshot.keySet();
+        } else {
+            Map<String, Map<String, Integer>> snapshot = this.postings;
+            for (String term : queryTerms(query)) {
+                Map<String, Integer> list = snapshot.get(term);
+                if (list == null) {
+                    return new SearchResult(Collections.emptyList(), 0);
+                }
+                lists.add(list);
+            }
+            // 从最短的倒排表出发逐个确认
+            lists.sort(Comparator.comparingInt(Map::size));
+            candidates = lists.get(0).keySet();
+        }
+
+        for (String stationId : candidates) {
+            int textScore = 0;
+            for (Map<String, Integer> list : lists) {
+                Integer tf = list.get(stationId);
+                if (tf == null) {
+                    textScore = -1;
+                    break;
+                }
+                textScore += tf;
+            }
+            Doc doc = docSnapshot.get(stationId);
+            if (textScore < 0 || doc == null || !Objects.equals(doc.station.getStationStatus(), stationStatus)
+                    || !(query.isEmpty() || doc.name.contains(query) || doc.address.contains(query))) {
+                continue;
+            }
+            total++;
+            if (limit <= 0) {
+                continue;
+            }
+
+            double distance = Double.POSITIVE_INFINITY;
+            double score = textScore;
+            if (located && !Double.isNaN(doc.latitude)) {
+                distance = GeoUtil.distanceKm(latitude, longitude, doc.latitude, doc.longitude);
+                score = query.isEmpty() ? 0 : textScore / (1 + distance / DISTANCE_DECAY_KM);
+            } else if (located) {
+                score = 0;
+            }
+            Scored scored = new Scored(doc, score, distance);
+            if (top.size() < limit) {
+                top.add(scored);
+            } else if (RANKING.compare(scored, top.peek()) < 0) {
+                top.poll();
+                top.add(scored);
+            }
+        }
+
+        List<Scored> ranked = new ArrayList<>(top);
+        ranked.sort(RANKING);
+        List<ChargingStation> stations = new ArrayList<>(ranked.size());
+        for (Scored scored : ranked) {
+            stations.add(scored.doc.station);
+        }
+        return new SearchResult(stations, total);
+    }
+
+    public ChargingStation get(String stationId) {
+        Doc doc = docs.get(stationId);
+        return doc == null ? null : doc.station;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void addPostings(Map<String, Map<String, Integer>> target, Doc doc) {
+        doc.termFreqs.forEach((term, tf) ->
+                target.computeIfAbsent(term, k -> new ConcurrentHashMap<>()).put(doc.station.getStationId(), tf));
+    }
+
+    private void removePostings(Doc doc) {
+        for (String term : doc.termFreqs.keySet()) {
+            postings.computeIfPresent(term, (k, list) -> {
+                list.remove(doc.station.getStationId());
+                return list.isEmpty() ? null : list;
+            });
+        }
+    }
+
+    /**
+     * 统一为小写，与数据库不区分大小写的排序规则一致；空白保留，与 LIKE 一致
+     */
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 单字关键词取单字词项，否则取全部相邻两字词项
+     */
+    private static List<String> queryTerms(String query) {
+        int[] cps = query.codePoints().toArray();
+        if (cps.length == 1) {
+            return List.of(query);
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        for (int i = 0; i + 1 < cps.length; i++) {
+            terms.add(new String(cps, i, 2));
+        }
+        return new ArrayList<>(terms);
+    }
+
+    private static void countTerms(String text, int weight, Map<String, Integer> termFreqs) {
+        int[] cps = text.codePoints().toArray();
+        for (int i = 0; i < cps.length; i++) {
+            termFreqs.merge(new String(cps, i, 1), weight, Integer::sum);
+            if (i + 1 < cps.length) {
+                termFreqs.merge(new String(cps, i, 2), weight, Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * 索引文档，内容不可变，变更时整体替换
+     */
+    private static final class Doc {
+        private final ChargingStation station;
+        private final String name;
+        private final String address;
+        private final double latitude;
+        private final double longitude;
+        private final Map<String, Integer> termFreqs = new HashMap<>();
+
+        Doc(ChargingStation station) {
+            this.station = station;
+            boolean located = station.getLatitude() != null && station.getLongitude() != null;
+            this.latitude = located ? station.getLatitude().doubleValue() : Double.NaN;
+            this.longitude = located ? station.getLongitude().doubleValue() : Double.NaN;
+            this.name = normalize(station.getStationName());
+            this.address = normalize(station.getAddress());
+            countTerms(name, NAME_WEIGHT, termFreqs);
+            countTerms(address, 1, termFreqs);
+        }
+    }
+
+    private static final class Scored {
+        private final Doc doc;
+        private final double score;
+        private final double distance;
+
+        Scored(Doc doc, double score, double distance) {
+            this.doc = doc;
+            this.score = score;
+            this.distance = distance;
+        }
+    }
+
+    /**
+     * 搜索结果：排序后的前若干个充电站及匹配总数
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class SearchResult {
+        private final List<ChargingStation> stations;
+        private final int total;
+    }
+}
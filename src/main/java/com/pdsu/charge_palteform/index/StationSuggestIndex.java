@@ -0,0 +1,290 @@
+package com.pdsu.charge_palteform.index;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.pdsu.charge_palteform.entity.ChargingStation;
+import com.pdsu.charge_palteform.enums.StationStatusEnum;
+import com.pdsu.charge_palteform.mapper.ChargingStationMapper;
+import com.pdsu.charge_palteform.utils.PinyinUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * 运营中充电站名称和地址的前缀联想索引
+ * <p>
+ * 每个充电站的名称、地址各生成汉字、全拼、拼音首字母三个词条，全部词条排序后存入数组，
+ * 前缀查询二分定位词条范围，相当于压平的字典树。
+ * 一两个字符的短前缀命中范围大，构建时预先算好前K个结果；
+ * 更长的前缀在范围内借助按排序值的线段树依次取排序值最小的词条，取够K个充电站即停止，
+ * 结果与扫描整个范围一致，耗时只与K有关。
+ * 排序规则：名称匹配优先于地址，词条越短越靠前。
+ * 启动时和每次充电站信息同步后整体重建。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StationSuggestIndex {
+
+    /**
+     * 最多返回的联想数
+     */
+    public static final int MAX_LIMIT = 20;
+
+    /**
+     * 预先计算结果的前缀最大长度
+     */
+    private static final int SHORT_PREFIX = 2;
+
+    /**
+     * 地址词条的排序惩罚，保证排在所有名称词条之后
+     */
+    private static final int ADDRESS_PENALTY = 1_000_000;
+
+    private final ChargingStationMapper stationMapper;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    /**
+     * 从数据库全量重建索引
+     */
+    public synchronized void rebuild() {
+        List<ChargingStation> list = stationMapper.selectList(new LambdaQueryWrapper<ChargingStation>()
+                .eq(ChargingStation::getStationStatus, StationStatusEnum.OPERATING.getCode())
+                .orderByAsc(ChargingStation::getId));
+        Snapshot built = Snapshot.build(list);
+        this.snapshot = built;
+        log.info("充电站联想索引构建完成，共{}个充电站，{}个词条", list.size(), built.keys.length);
+    }
+
+    /**
+     * 查询以prefix开头的充电站，支持汉字、全拼和拼音首字母
+     */
+    public List<ChargingStation> suggest(String prefix, int limit) {
+        String query = normalize(prefix);
+        if (query.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        Snapshot current = this.snapshot;
+        int[] ordinals = query.length() <= SHORT_PREFIX
+                ? current.shortTops.getOrDefault(query, new int[0])
+                : current.scan(query, Math.min(limit, MAX_LIMIT));
+        List<ChargingStation> result = new ArrayList<>(Math.min(limit, ordinals.length));
+        for (int i = 0; i < ordinals.length && i < limit; i++) {
+            result.add(current.stations[ordinals[i]]);
+        }
+        return result;
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        text.codePoints()
+                .filter(cp -> !Character.isWhitespace(cp))
+                .map(Character::toLowerCase)
+                .forEach(sb::appendCodePoint);
+        return sb.toString();
+    }
+
+    /**
+     * 索引快照，内容不可变
+     */
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new ChargingStation[0], new String[0], new int[0], new int[0],
+                Collections.emptyMap());
+
+        private final ChargingStation[] stations;
+        private final String[] keys;
+        private final int[] owners;
+        private final int[] ranks;
+        private final Map<String, int[]> shortTops;
+
+        /**
+         * 线段树，节点保存区间内排序最靠前的词条序号，叶子从keys.length开始
+         */
+        private final int[] tree;
+
+        private Snapshot(ChargingStation[] stations, String[] keys, int[] owners, int[] ranks,
+                         Map<String, int[]> shortTops) {
+            this.stations = stations;
+            this.keys = keys;
+            this.owners = owners;
+            this.ranks = ranks;
+            this.shortTops = shortTops;
+            int n = keys.length;
+            this.tree = new int[2 * n];
+            for (int i = 0; i < n; i++) {
+                tree[n + i] = i;
+            }
+            for (int node = n - 1; node > 0; node--) {
+                tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+            }
+        }
+
+        static Snapshot build(List<ChargingStation> list) {
+            ChargingStation[] stations = list.toArray(new ChargingStation[0]);
+            List<Entry> entries = new ArrayList<>();
+            for (int i = 0; i < stations.length; i++) {
+                addEntries(entries, stations[i].getStationName(), i, 0);
+                addEntries(entries, stations[i].getAddress(), i, ADDRESS_PENALTY);
+            }
+            entries.sort(Comparator.comparing((Entry e) -> e.key).thenComparingInt(e -> e.owner));
+
+            String[] keys = new String[entries.size()];
+            int[] owners = new int[entries.size()];
+            int[] ranks = new int[entries.size()];
+            // 短前缀 -> (充电站序号 -> 最优排序值)
+            Map<String, Map<Integer, Integer>> shortBest = new HashMap<>();
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                keys[i] = entry.key;
+                owners[i] = entry.owner;
+                ranks[i] = entry.rank;
+                for (int len = 1; len <= SHORT_PREFIX && len <= entry.key.length(); len++) {
+                    shortBest.computeIfAbsent(entry.key.substring(0, len), k -> new HashMap<>())
+                            .merge(entry.owner, entry.rank, Math::min);
+                }
+            }
+            Map<String, int[]> shortTops = new HashMap<>(shortBest.size() * 2);
+            shortBest.forEach((prefix, best) -> shortTops.put(prefix, top(best, MAX_LIMIT)));
+            return new Snapshot(stations, keys, owners, ranks, shortTops);
+        }
+
+        /**
+         * 二分定位前缀范围，按排序值从小到大依次取出词条，充电站第一次出现时即为其最优排序值
+         * <p>
+         * 每取出一个词条，把所在区间在该词条两侧拆成两个子区间放回队列，队列按子区间内最靠前的词条排序
+         */
+        int[] scan(String prefix, int limit) {
+            int from = lowerBound(prefix);
+            int to = prefixEnd(prefix, from);
+            if (from >= to) {
+                return new int[0];
+            }
+            // 元素为 {区间起点, 区间终点, 区间内最靠前的词条}
+            PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> compareEntries(a[2], b[2]));
+            ranges.add(new int[]{from, to, query(from, to)});
+            Set<Integer> seen = new HashSet<>();
+            int[] result = new int[limit];
+            int size = 0;
+            while (size < limit && !ranges.isEmpty()) {
+                int[] range = ranges.poll();
+                int entry = range[2];
+                if (seen.add(owners[entry])) {
+                    result[size++] = owners[entry];
+                }
+                if (range[0] < entry) {
+                    ranges.add(new int[]{range[0], entry, query(range[0], entry)});
+                }
+                if (entry + 1 < range[1]) {
+                    ranges.add(new int[]{entry + 1, range[1], query(entry + 1, range[1])});
+                }
+            }
+            return Arrays.copyOf(result, size);
+        }
+
+        /**
+         * [from, to)内排序最靠前的词条
+         */
+        private int query(int from, int to) {
+            int best = -1;
+            for (int lo = from + keys.length, hi = to + keys.length; lo < hi; lo >>= 1, hi >>= 1) {
+                if ((lo & 1) == 1) {
+                    best = better(best, tree[lo++]);
+                }
+                if ((hi & 1) == 1) {
+                    best = better(best, tree[--hi]);
+                }
+            }
+            return best;
+        }
+
+        private int better(int a, int b) {
+            if (a < 0) {
+                return b;
+            }
+            if (b < 0) {
+                return a;
+            }
+            return compareEntries(a, b) <= 0 ? a : b;
+        }
+
+        /**
+         * 排序值小的在前，相同时充电站序号小的在前，与短前缀预计算的顺序一致
+         */
+        private int compareEntries(int a, int b) {
+            int byRank = Integer.compare(ranks[a], ranks[b]);
+            if (byRank != 0) {
+                return byRank;
+            }
+            int byOwner = Integer.compare(owners[a], owners[b]);
+            return byOwner != 0 ? byOwner : Integer.compare(a, b);
+        }
+
+        /**
+         * 以prefix开头的词条从from起连续排列，二分找到第一个不以prefix开头的位置
+         */
+        private int prefixEnd(String prefix, int from) {
+            int lo = from;
+            int hi = keys.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid].startsWith(prefix)) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        private int lowerBound(String prefix) {
+            int lo = 0;
+            int hi = keys.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid].compareTo(prefix) < 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        private static int[] top(Map<Integer, Integer> best, int limit) {
+            return best.entrySet().stream()
+                    .sorted(Map.Entry.<Integer, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .mapToInt(Map.Entry::getKey)
+                    .toArray();
+        }
+
+        private static void addEntries(List<Entry> entries, String text, int owner, int penalty) {
+            String hanzi = normalize(text);
+            if (hanzi.isEmpty()) {
+                return;
+            }
+            String[] pinyin = PinyinUtil.toPinyin(text);
+            Set<String> keys = new LinkedHashSet<>(List.of(hanzi, pinyin[0], pinyin[1]));
+            for (String key : keys) {
+                entries.add(new Entry(key, owner, penalty + key.length()));
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final int owner;
+        private final int rank;
+
+        Entry(String key, int owner, int rank) {
+            this.key = key;
+            this.owner = owner;
+            this.rank = rank;
+        }
+    }
+}
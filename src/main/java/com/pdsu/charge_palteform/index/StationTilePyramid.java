@@ -0,0 +1,194 @@
+package com.pdsu.charge_palteform.index;
+
+import com.pdsu.charge_palteform.entity.ChargingStation;
+import com.pdsu.charge_palteform.entity.StationSummary;
+import com.pdsu.charge_palteform.service.StationSummaryService;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 充电站地图瓦片聚合金字塔
+ * <p>
+ * 按Web墨卡托瓦片划分各缩放级别，预先聚合每个瓦片内的充电站数、充电桩数和坐标和，
+ * 充电站或充电桩状态变化时只增减该充电站所在瓦片的聚合值。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StationTilePyramid {
+
+    public static final int MIN_ZOOM = 3;
+    public static final int MAX_ZOOM = 16;
+
+    private final StationGeoIndex stationGeoIndex;
+    private final StationSummaryService stationSummaryService;
+
+    /**
+     * 各缩放级别的瓦片，下标为 zoom - MIN_ZOOM
+     */
+    private final List<Map<Long, Tile>> levels = createLevels();
+
+    /**
+     * 充电站当前计入金字塔的数据，用于变更时扣减
+     */
+    private final Map<String, Contribution> contributions = new ConcurrentHashMap<>();
+
+    /**
+     * 以空间索引中的充电站全量重建
+     */
+    public synchronized void rebuild() {
+        levels.forEach(Map::clear);
+        contributions.clear();
+        for (ChargingStation station : stationGeoIndex.getAll()) {
+            Contribution contribution = contributionOf(station);
+            contributions.put(station.getStationId(), contribution);
+            apply(contribution, 1);
+        }
+        log.info("充电站地图瓦片聚合构建完成，共{}个充电站", contributions.size());
+    }
+
+    /**
+     * 按空间索引和汇总信息的最新数据刷新单个充电站
+     */
+    public synchronized void refresh(String stationId) {
+        Contribution old = contributions.remove(stationId);
+        if (old != null) {
+            apply(old, -1);
+        }
+        ChargingStation station = stationGeoIndex.get(stationId);
+        if (station != null) {
+            Contribution contribution = contributionOf(station);
+            contributions.put(stationId, contribution);
+            apply(contribution, 1);
+        }
+    }
+
+    /**
+     * 查询视野范围内某一缩放级别的瓦片聚合
+     */
+    public List<Tile> query(double minLat, double maxLat, double minLng, double maxLng, int zoom) {
+        int z = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom));
+        Map<Long, Tile> level = levels.get(z - MIN_ZOOM);
+        long minX = tileX(minLng, z);
+        long maxX = tileX(maxLng, z);
+        // 纬度越大瓦片y越小
+        long minY = tileY(maxLat, z);
+        long maxY = tileY(minLat, z);
+
+        List<Tile> tiles = new ArrayList<>();
+        // 视野内瓦片数多于已有瓦片数时，直接遍历已有瓦片
+        if ((maxX - minX + 1) * (maxY - minY + 1) > level.size()) {
+            for (Tile tile : level.values()) {
+                if (tile.getX() >= minX && tile.getX() <= maxX && tile.getY() >= minY && tile.getY() <= maxY) {
+                    tiles.add(tile);
+                }
+            }
+            return tiles;
+        }
+        for (long x = minX; x <= maxX; x++) {
+            for (long y = minY; y <= maxY; y++) {
+                Tile tile = level.get(key(x, y));
+                if (tile != null) {
+                    tiles.add(tile);
+                }
+            }
+        }
+        return tiles;
+    }
+
+    private Contribution contributionOf(ChargingStation station) {
+        StationSummary summary = stationSummaryService.getSummary(station.getStationId());
+        return new Contribution(
+                station.getLatitude().doubleValue(),
+                station.getLongitude().doubleValue(),
+                summary != null ? summary.getTotalConnectors() : 0,
+                summary != null ? summary.getIdleConnectors() : 0
+        );
+    }
+
+    private void apply(Contribution c, int sign) {
+        for (int zoom = MIN_ZOOM; zoom <= MAX_ZOOM; zoom++) {
+            int z = zoom;
+            long x = tileX(c.lng, z);
+            long y = tileY(c.lat, z);
+            levels.get(z - MIN_ZOOM).compute(key(x, y), (k, tile) -> {
+                Tile base = tile != null ? tile : new Tile(z, x, y, 0, 0, 0, 0, 0);
+                Tile merged = new Tile(z, x, y,
+                        base.stationCount + sign,
+                        base.totalConnectors + sign * c.totalConnectors,
+                        base.idleConnectors + sign * c.idleConnectors,
+                        base.latitudeSum + sign * c.lat,
+                        base.longitudeSum + sign * c.lng);
+                return merged.stationCount > 0 ? merged : null;
+            });
+        }
+    }
+
+    private static long tileX(double lng, int zoom) {
+        long n = 1L << zoom;
+        long x = (long) Math.floor((lng + 180) / 360 * n);
+        return Math.max(0, Math.min(n - 1, x));
+    }
+
+    private static long tileY(double lat, int zoom) {
+        long n = 1L << zoom;
+        double radLat = Math.toRadians(Math.max(-85.05112878, Math.min(85.05112878, lat)));
+        long y = (long) Math.floor((1 - Math.log(Math.tan(radLat) + 1 / Math.cos(radLat)) / Math.PI) / 2 * n);
+        return Math.max(0, Math.min(n - 1, y));
+    }
+
+    private static long key(long x, long y) {
+        return (x << 32) | y;
+    }
+
+    private static List<Map<Long, Tile>> createLevels() {
+        List<Map<Long, Tile>> levels = new ArrayList<>();
+        for (int z = MIN_ZOOM; z <= MAX_ZOOM; z++) {
+            levels.add(new ConcurrentHashMap<>());
+        }
+        return levels;
+    }
+
+    /**
+     * 充电站计入瓦片的数据
+     */
+    @AllArgsConstructor
+    private static class Contribution {
+        private final double lat;
+        private final double lng;
+        private final int totalConnectors;
+        private final int idleConnectors;
+    }
+
+    /**
+     * 瓦片聚合，内容不可变，变更时整体替换
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Tile {
+        private final int zoom;
+        private final long x;
+        private final long y;
+        private final int stationCount;
+        private final int totalConnectors;
+        private final int idleConnectors;
+        private final double latitudeSum;
+        private final double longitudeSum;
+
+        public double getCentroidLatitude() {
+            return latitudeSum / stationCount;
+        }
+
+        public double getCentroidLongitude() {
+            return longitudeSum / stationCount;
+        }
+    }
+}
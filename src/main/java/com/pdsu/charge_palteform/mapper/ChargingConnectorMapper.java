@@ -2,10 +2,18 @@ package com.pdsu.charge_palteform.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.pdsu.charge_palteform.entity.ChargingConnector;
+import com.pdsu.charge_palteform.entity.StationSummary;
+import com.pdsu.charge_palteform.entity.dto.ConnectorItem;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -31,4 +39,86 @@ public interface ChargingConnectorMapper  extends BaseMapper<ChargingConnector>
             "</script>")
     List<Map<String, Object>> batchCountConnectorsByStatus(@Param("stationIds") List<String> stationIds);
 
+    /**
+     * 按充电站汇总充电桩数量、价格、功率和能力位，stationIds为空时汇总全部充电站
+     */
+    @Select("<script>" +
+            "SELECT station_id, COUNT(*) AS total_connectors, " +
+            "SUM(status = 1) AS idle_connectors, SUM(status = 2) AS charging_connectors, " +
+            "SUM(status = 255) AS fault_connectors, " +
+            "SUM(connector_type = 1) AS dc_connectors, SUM(connector_type = 2) AS ac_connectors, " +
+            "SUM(connector_type = 1 AND status = 1) AS idle_dc_connectors, " +
+            "SUM(connector_type = 2 AND status = 1) AS idle_ac_connectors, " +
+            "MIN(electricity_fee) AS min_electricity_fee, MAX(electricity_fee) AS max_electricity_fee, " +
+            "MAX(rated_power) AS max_rated_power, " +
+            "MAX(connector_type = 1) + MAX(connector_type = 2) * 2 + " +
+            "MAX(connector_type = 1 AND status = 1) * 4 + MAX(connector_type = 2 AND status = 1) * 8 AS capabilities " +
+            "FROM charging_connectors " +
+            "<if test='stationIds != null'>" +
+            "WHERE station_id IN " +
+            "<foreach collection='stationIds' item='stationId' open='(' separator=',' close=')'>" +
+            "#{stationId}" +
+            "</foreach>" +
+            "</if>" +
+            " GROUP BY station_id" +
+            "</script>")
+    List<StationSummary> summarizeByStation(@Param("stationIds") Collection<String> stationIds);
+
+    /**
+     * 批量写入充电桩，已存在的按充电桩ID覆盖基础信息，状态只由状态同步更新，创建、更新时间由数据库维护
+     */
+    @Insert("<script>" +
+            "INSERT INTO charging_connectors (connector_id, station_id, connector_name, connector_type, " +
+            "rated_power, current_power, electricity_fee, service_fee, status, status_update_time) VALUES " +
+            "<foreach collection='connectors' item='c' separator=','>" +
+            "(#{c.connectorId}, #{c.stationId}, #{c.connectorName}, #{c.connectorType}, #{c.ratedPower}, " +
+            "#{c.currentPower}, #{c.electricityFee}, #{c.serviceFee}, #{c.status}, #{c.statusUpdateTime})" +
+            "</foreach>" +
+            " ON DUPLICATE KEY UPDATE station_id = VALUES(station_id), connector_name = VALUES(connector_name), " +
+            "connector_type = VALUES(connector_type), rated_power = VALUES(rated_power), " +
+            "current_power = VALUES(current_power), electricity_fee = VALUES(electricity_fee), " +
+            "service_fee = VALUES(service_fee)" +
+            "</script>")
+    int upsertBatch(@Param("connectors") Collection<ChargingConnector> connectors);
+
+    /**
+     * 批量更新充电桩状态和状态更新时间，一条语句按充电桩ID分别取值
+     */
+    @Update("<script>" +
+            "UPDATE charging_connectors SET status = CASE connector_id " +
+            "<foreach collection='connectors' item='c'>WHEN #{c.connectorId} THEN #{c.status} </foreach>" +
+            "END, status_update_time = CASE connector_id " +
+            "<foreach collection='connectors' item='c'>WHEN #{c.connectorId} THEN #{c.statusUpdateTime} </foreach>" +
+            "END WHERE connector_id IN " +
+            "<foreach collection='connectors' item='c' open='(' separator=',' close=')'>#{c.connectorId}</foreach>" +
+            "</script>")
+    int updateStatusBatch(@Param("connectors") Collection<ChargingConnector> connectors);
+
+    /**
+     * 流式读取充电站下的充电桩，fetchSize为Integer.MIN_VALUE时MySQL驱动逐行返回结果
+     */
+    @Select("SELECT connector_id, station_id, connector_name, connector_type, rated_power, current_power, " +
+            "electricity_fee, service_fee, status, status_update_time FROM charging_connectors " +
+            "WHERE station_id = #{stationId} ORDER BY connector_id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<ConnectorItem> streamByStation(@Param("stationId") String stationId);
+
+    /**
+     * 流式读取地区内所有充电站的充电桩，条件为空的行政区划不限定
+     */
+    @Select("<script>" +
+            "SELECT c.connector_id, c.station_id, c.connector_name, c.connector_type, c.rated_power, " +
+            "c.current_power, c.electricity_fee, c.service_fee, c.status, c.status_update_time " +
+            "FROM charging_connectors c JOIN charging_stations s ON s.station_id = c.station_id " +
+            "<where>" +
+            "<if test='province != null'>AND s.province = #{province}</if>" +
+            "<if test='city != null'>AND s.city = #{city}</if>" +
+            "<if test='district != null'>AND s.district = #{district}</if>" +
+            "</where>" +
+            " ORDER BY c.station_id, c.connector_id" +
+            "</script>")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<ConnectorItem> streamByRegion(@Param("province") String province,
+                                         @Param("city") String city,
+                                         @Param("district") String district);
 }
@@ -2,21 +2,59 @@ package com.pdsu.charge_palteform.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.pdsu.charge_palteform.entity.ChargingStation;
+import com.pdsu.charge_palteform.entity.StationRecord;
+import com.pdsu.charge_palteform.entity.dto.StationQueryRequest;
 import org.apache.ibatis.annotations.Param;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 public interface ChargingStationMapper extends BaseMapper<ChargingStation> {
 
 
-    List<ChargingStation> findNearbyStations(@Param("latitude") BigDecimal latitude,
-                                             @Param("longitude") BigDecimal longitude,
-                                             @Param("radius") Integer radius,
-                                             @Param("offset") Integer offset,
-                                             @Param("size") Integer size);
+    /**
+     * 分页查询附近运营中的充电站
+     *
+     * @param boundingBox     查询范围的外接矩形（WKT，经度在前）
+     * @param cursorDistance  游标位置的距离，为空时按offset分页
+     * @param cursorStationId 游标位置的充电站ID，为空时按offset分页
+     * @param countTotal      是否在结果中附带总数
+     * @param filter          充电桩筛选条件（类型、空闲、功率、电费）
+     */
+    List<StationRecord> findNearbyStations(@Param("latitude") BigDecimal latitude,
+                                           @Param("longitude") BigDecimal longitude,
+                                           @Param("radius") Integer radius,
+                                           @Param("boundingBox") String boundingBox,
+                                           @Param("cursorDistance") Double cursorDistance,
+                                           @Param("cursorStationId") String cursorStationId,
+                                           @Param("countTotal") boolean countTotal,
+                                           @Param("filter") StationQueryRequest filter,
+                                           @Param("offset") Integer offset,
+                                           @Param("size") Integer size);
 
+    /**
+     * 统计附近运营中的充电站数量
+     */
     Long countNearbyStations(@Param("latitude") BigDecimal latitude,
                              @Param("longitude") BigDecimal longitude,
-                             @Param("radius") Integer radius);
+                             @Param("radius") Integer radius,
+                             @Param("boundingBox") String boundingBox,
+                             @Param("filter") StationQueryRequest filter);
+
+    /**
+     * 关键词分页搜索指定状态的充电站
+     *
+     * @param countTotal 是否在结果中附带总数
+     */
+    List<StationRecord> searchStations(@Param("keyword") String keyword,
+                                       @Param("status") Integer status,
+                                       @Param("countTotal") boolean countTotal,
+                                       @Param("offset") Integer offset,
+                                       @Param("size") Integer size);
+
+    /**
+     * 批量写入充电站，已存在的按充电站ID覆盖
+     */
+    int upsertBatch(@Param("stations") Collection<ChargingStation> stations);
 }
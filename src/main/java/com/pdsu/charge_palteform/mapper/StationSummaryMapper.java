@@ -0,0 +1,35 @@
+package com.pdsu.charge_palteform.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.pdsu.charge_palteform.entity.StationSummary;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+
+@Mapper
+public interface StationSummaryMapper extends BaseMapper<StationSummary> {
+    /**
+     * 批量写入充电站汇总，已存在的按充电站ID覆盖
+     */
+    @Insert("<script>" +
+            "INSERT INTO station_summary (station_id, total_connectors, idle_connectors, charging_connectors, " +
+            "fault_connectors, dc_connectors, ac_connectors, idle_dc_connectors, idle_ac_connectors, " +
+            "min_electricity_fee, max_electricity_fee, max_rated_power, capabilities) VALUES " +
+            "<foreach collection='summaries' item='s' separator=','>" +
+            "(#{s.stationId}, #{s.totalConnectors}, #{s.idleConnectors}, #{s.chargingConnectors}, " +
+            "#{s.faultConnectors}, #{s.dcConnectors}, #{s.acConnectors}, #{s.idleDcConnectors}, " +
+            "#{s.idleAcConnectors}, #{s.minElectricityFee}, #{s.maxElectricityFee}, #{s.maxRatedPower}, " +
+            "#{s.capabilities})" +
+            "</foreach>" +
+            " ON DUPLICATE KEY UPDATE total_connectors = VALUES(total_connectors), " +
+            "idle_connectors = VALUES(idle_connectors), charging_connectors = VALUES(charging_connectors), " +
+            "fault_connectors = VALUES(fault_connectors), dc_connectors = VALUES(dc_connectors), " +
+            "ac_connectors = VALUES(ac_connectors), idle_dc_connectors = VALUES(idle_dc_connectors), " +
+            "idle_ac_connectors = VALUES(idle_ac_connectors), min_electricity_fee = VALUES(min_electricity_fee), " +
+            "max_electricity_fee = VALUES(max_electricity_fee), max_rated_power = VALUES(max_rated_power), " +
+            "capabilities = VALUES(capabilities)" +
+            "</script>")
+    int upsertBatch(@Param("summaries") Collection<StationSummary> summaries);
+}
@@ -1,13 +1,22 @@
 package com.pdsu.charge_palteform.service;
 
 import com.pdsu.charge_palteform.entity.ChargingConnector;
+import com.pdsu.charge_palteform.entity.dto.ConnectorItem;
+import com.pdsu.charge_palteform.entity.dto.MapClusterRequest;
+import com.pdsu.charge_palteform.entity.dto.MapClusterResponse;
+import com.pdsu.charge_palteform.entity.dto.NearestConnectorRequest;
+import com.pdsu.charge_palteform.entity.dto.NearestConnectorResponse;
 import com.pdsu.charge_palteform.entity.dto.PageResponse;
+import com.pdsu.charge_palteform.entity.dto.StationBatchDetailRequest;
 import com.pdsu.charge_palteform.entity.dto.StationDetailResponse;
 import com.pdsu.charge_palteform.entity.dto.StationListResponse;
 import com.pdsu.charge_palteform.entity.dto.StationQueryRequest;
+import com.pdsu.charge_palteform.entity.dto.StationSuggestion;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface ChargingStationService {
     /**
@@ -21,9 +30,24 @@ public interface ChargingStationService {
     StationDetailResponse getStationDetail(String stationId, BigDecimal latitude, BigDecimal longitude);
 
     /**
-     * 获取充电站的所有充电桩
+     * 批量获取充电站详情，按请求顺序返回，不存在的充电站不返回
      */
-    List<ChargingConnector> getStationConnectors(String stationId);
+    Stream<StationDetailResponse> getStationDetails(StationBatchDetailRequest request);
+
+    /**
+     * 获取充电站数据版本号，充电站或其充电桩变化时递增，所有实例一致，不可用时返回null
+     */
+    String getStationVersion(String stationId);
+
+    /**
+     * 流式读取充电站的所有充电桩，逐条交给action处理
+     */
+    void streamStationConnectors(String stationId, Consumer<ConnectorItem> action);
+
+    /**
+     * 流式读取地区内所有充电桩，逐条交给action处理
+     */
+    void streamRegionConnectors(String province, String city, String district, Consumer<ConnectorItem> action);
 
     /**
      * 根据充电桩ID获取充电桩信息
@@ -34,4 +58,19 @@ public interface ChargingStationService {
      * 搜索充电站（关键词搜索）
      */
     PageResponse<StationListResponse> searchStations(StationQueryRequest request);
+
+    /**
+     * 按前缀联想充电站名称和地址，支持汉字、全拼和拼音首字母
+     */
+    List<StationSuggestion> suggestStations(String prefix, int limit);
+
+    /**
+     * 查询地图视野内的充电站聚合
+     */
+    MapClusterResponse queryMapClusters(MapClusterRequest request);
+
+    /**
+     * 查询距离最近的N个符合条件的充电桩，不限定搜索半径
+     */
+    List<NearestConnectorResponse> queryNearestConnectors(NearestConnectorRequest request);
 }
@@ -0,0 +1,45 @@
+package com.pdsu.charge_palteform.service;
+
+import com.pdsu.charge_palteform.entity.ConnectorStatusChange;
+import com.pdsu.charge_palteform.entity.StationSummary;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Set;
+
+public interface StationSummaryService {
+    /**
+     * 从汇总表加载全部充电站汇总信息，汇总表为空时从充电桩表重新汇总
+     */
+    void reload();
+
+    /**
+     * 从充电桩表重新汇总指定充电站
+     *
+     * @return 汇总信息发生变化的充电站ID
+     */
+    Set<String> refresh(Collection<String> stationIds);
+
+    /**
+     * 按充电桩状态变化增量更新汇总信息
+     *
+     * @return 汇总信息发生变化的充电站ID
+     */
+    Set<String> applyStatusChanges(Collection<ConnectorStatusChange> changes);
+
+    /**
+     * 获取充电站汇总信息，不存在时返回null
+     */
+    StationSummary getSummary(String stationId);
+
+    /**
+     * 充电站是否有同时满足全部条件的充电桩，条件为空时不限定
+     */
+    boolean hasMatchingConnector(String stationId, Integer connectorType, boolean onlyAvailable,
+                                 BigDecimal minPower, BigDecimal maxElectricityFee);
+
+    /**
+     * 汇总信息是否已加载
+     */
+    boolean isReady();
+}
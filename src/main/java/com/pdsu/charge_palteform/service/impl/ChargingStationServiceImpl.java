@@ -1,30 +1,63 @@
 package com.pdsu.charge_palteform.service.impl;
 
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.pdsu.charge_palteform.cache.StationDetailCache;
+import com.pdsu.charge_palteform.cache.StationJsonFragments;
+import com.pdsu.charge_palteform.cache.StationNearbyCache;
+import com.pdsu.charge_palteform.cache.StationSearchSnapshotCache;
+import com.pdsu.charge_palteform.cache.StationVersionTracker;
+import com.pdsu.charge_palteform.config.StationSyncTrigger;
 import com.pdsu.charge_palteform.entity.ChargingConnector;
 import com.pdsu.charge_palteform.entity.ChargingStation;
+import com.pdsu.charge_palteform.entity.StationRecord;
+import com.pdsu.charge_palteform.entity.StationSummary;
+import com.pdsu.charge_palteform.entity.dto.ConnectorItem;
+import com.pdsu.charge_palteform.entity.dto.MapClusterRequest;
+import com.pdsu.charge_palteform.entity.dto.MapClusterResponse;
+import com.pdsu.charge_palteform.entity.dto.NearestConnectorRequest;
+import com.pdsu.charge_palteform.entity.dto.NearestConnectorResponse;
 import com.pdsu.charge_palteform.entity.dto.PageResponse;
+import com.pdsu.charge_palteform.entity.dto.StationBatchDetailRequest;
 import com.pdsu.charge_palteform.entity.dto.StationDetailResponse;
 import com.pdsu.charge_palteform.entity.dto.StationListResponse;
 import com.pdsu.charge_palteform.entity.dto.StationQueryRequest;
+import com.pdsu.charge_palteform.entity.dto.StationSuggestion;
 import com.pdsu.charge_palteform.enums.ConnectorStatusEnum;
 import com.pdsu.charge_palteform.enums.ConnectorTypeEnum;
+import com.pdsu.charge_palteform.enums.StationSortTypeEnum;
 import com.pdsu.charge_palteform.enums.StationStatusEnum;
 import com.pdsu.charge_palteform.exception.BusinessException;
+import com.pdsu.charge_palteform.index.ConnectorStatusStore;
+import com.pdsu.charge_palteform.index.StationGeoIndex;
+import com.pdsu.charge_palteform.index.StationSearchIndex;
+import com.pdsu.charge_palteform.index.StationSuggestIndex;
+import com.pdsu.charge_palteform.index.StationTilePyramid;
 import com.pdsu.charge_palteform.mapper.ChargingConnectorMapper;
 import com.pdsu.charge_palteform.mapper.ChargingStationMapper;
 import com.pdsu.charge_palteform.service.ChargingStationService;
-import com.pdsu.charge_palteform.service.DataSyncService;
+import com.pdsu.charge_palteform.service.StationSummaryService;
+import com.pdsu.charge_palteform.utils.GeoUtil;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 @Slf4j
@@ -34,7 +67,35 @@ public class ChargingStationServiceImpl extends ServiceImpl<ChargingStationMappe
 
     private final ChargingStationMapper stationMapper;
     private final ChargingConnectorMapper connectorMapper;
-    private final DataSyncService dataSyncService;
+    private final StationSyncTrigger stationSyncTrigger;
+    private final StationGeoIndex stationGeoIndex;
+    private final StationSearchIndex stationSearchIndex;
+    private final StationSuggestIndex stationSuggestIndex;
+    private final StationSummaryService stationSummaryService;
+    private final StationTilePyramid stationTilePyramid;
+    private final StationNearbyCache stationNearbyCache;
+    private final StationDetailCache stationDetailCache;
+    private final StationSearchSnapshotCache stationSearchSnapshotCache;
+    private final StationVersionTracker stationVersionTracker;
+    private final ConnectorStatusStore connectorStatusStore;
+    private final StationJsonFragments stationJsonFragments;
+
+    /**
+     * 综合推荐权重：距离、空闲桩数、故障率
+     */
+    private static final double RANK_WEIGHT_DISTANCE = 0.5;
+    private static final double RANK_WEIGHT_IDLE = 0.4;
+    private static final double RANK_WEIGHT_FAULT = 0.3;
+
+    /**
+     * 空闲桩数达到该值后不再加分
+     */
+    private static final int IDLE_SATURATION = 5;
+
+    /**
+     * 最近充电桩查询每批加载的充电站数
+     */
+    private static final int NEAREST_BATCH_SIZE = 20;
 
     @Override
     public PageResponse<StationListResponse> queryNearbyStations(StationQueryRequest request) {
@@ -42,99 +103,293 @@ public class ChargingStationServiceImpl extends ServiceImpl<ChargingStationMappe
             throw new BusinessException("位置信息不能为空");
         }
 
-        // 计算分页偏移量
-        int offset = (request.getPageNum() - 1) * request.getPageSize();
+        NearbyCursor cursor = StringUtils.hasText(request.getCursor())
+                ? NearbyCursor.decode(request.getCursor()) : null;
 
         // 查询附近充电站
-        List<ChargingStation> stations = stationMapper.findNearbyStations(
-                request.getLatitude(),
-                request.getLongitude(),
-                request.getRadius(),
-                offset,
-                request.getPageSize()
-        );
-
-        // 统计总数
-        Long total = stationMapper.countNearbyStations(
-                request.getLatitude(),
-                request.getLongitude(),
-                request.getRadius()
-        );
+        NearbyPage result = findNearbyStations(request, cursor);
 
-        // 如果本地没有数据，尝试同步
-        if (total == 0) {
-            log.info("本地无充电站数据，尝试从电能平台同步...");
-            try {
-                dataSyncService.syncStationInfo();
-                // 重新查询
-                stations = stationMapper.findNearbyStations(
-                        request.getLatitude(),
-                        request.getLongitude(),
-                        request.getRadius(),
-                        offset,
-                        request.getPageSize()
-                );
-                total = stationMapper.countNearbyStations(
-                        request.getLatitude(),
-                        request.getLongitude(),
-                        request.getRadius()
-                );
-            } catch (Exception e) {
-                log.error("同步充电站数据失败", e);
-                // 同步失败不影响查询，返回空结果
-            }
+        // 查询无结果且本地没有任何充电站数据时，在后台触发同步，本次直接返回空结果
+        if (result.getHits().isEmpty() && cursor == null && request.getPageNum() == 1) {
+            stationSyncTrigger.triggerIfEmpty("附近充电站查询无结果");
         }
 
         // 转换为响应DTO
-        List<StationListResponse> responseList = convertToStationList(stations, request);
-
-        return PageResponse.of(responseList, total, request.getPageNum(), request.getPageSize());
+        List<ChargingStation> stations = result.getHits().stream()
+                .map(StationGeoIndex.Hit::getStation)
+                .collect(Collectors.toList());
+        double[] distances = result.getHits().stream()
+                .mapToDouble(StationGeoIndex.Hit::getDistance)
+                .toArray();
+        List<StationListResponse> responseList = convertToStationList(stations, distances);
+
+        PageResponse<StationListResponse> response = toPageResponse(
+                responseList, result.getTotal(), result.isHasMore(), request);
+        response.setNextCursor(result.getNextCursor());
+        return response;
     }
 
     @Override
     public PageResponse<StationListResponse> searchStations(StationQueryRequest request) {
-        LambdaQueryWrapper<ChargingStation> queryWrapper = new LambdaQueryWrapper<ChargingStation>()
-                .eq(ChargingStation::getStationStatus, 2); // 只查询运营中的充电站
-
-        // 关键词搜索
-        if (StringUtils.hasText(request.getKeyword())) {
-            queryWrapper.and(wrapper -> wrapper
-                    .like(ChargingStation::getStationName, request.getKeyword())
-                    .or()
-                    .like(ChargingStation::getAddress, request.getKeyword())
-            );
+        Integer status = request.getStatus() != null ? request.getStatus() : StationStatusEnum.OPERATING.getCode();
+        if (!stationSearchIndex.isReady()) {
+            return searchStationsFromDb(request, status);
         }
 
-        // 分页查询
-        Page<ChargingStation> page = new Page<>(request.getPageNum(), request.getPageSize());
-        Page<ChargingStation> result = page(page, queryWrapper);
+        int offset = (request.getPageNum() - 1) * request.getPageSize();
+        int limit = offset + request.getPageSize();
+        Double latitude = request.getLatitude() != null ? request.getLatitude().doubleValue() : null;
+        Double longitude = request.getLongitude() != null ? request.getLongitude().doubleValue() : null;
+        String query = request.getKeyword() + "|" + status + "|" + latitude + "," + longitude;
+
+        // 快照覆盖当前页时直接切片，不再搜索
+        StationSearchSnapshotCache.Snapshot snapshot = stationSearchSnapshotCache.get(request.getSnapshotToken(), query);
+        String snapshotToken = request.getSnapshotToken();
+        List<ChargingStation> stations;
+        int matchCount;
+        if (snapshot != null && (limit <= snapshot.getStationIds().size()
+                || snapshot.getStationIds().size() >= snapshot.getTotal())) {
+            List<String> ids = snapshot.getStationIds();
+            stations = offset >= ids.size() ? Collections.emptyList()
+                    : loadStations(ids.subList(offset, Math.min(limit, ids.size())));
+            matchCount = snapshot.getTotal();
+        } else {
+            // 文本匹配和距离排序在索引内一次完成，第一页同时取够快照所需的条数
+            int searchLimit = Math.max(limit, snapshot == null ? stationSearchSnapshotCache.getMaxIds() : 0);
+            StationSearchIndex.SearchResult result = stationSearchIndex.search(
+                    request.getKeyword(), status, latitude, longitude, searchLimit);
+
+            // 搜索结果为空且本地没有任何充电站数据时，在后台触发同步
+            if (result.getTotal() == 0 && request.getPageNum() == 1) {
+                stationSyncTrigger.triggerIfEmpty("搜索无结果");
+            }
 
-        // 如果搜索结果为空且是第一次查询，尝试同步数据
-        if (result.getTotal() == 0 && request.getPageNum() == 1) {
-            log.info("搜索无结果，尝试同步最新数据...");
-            try {
-                dataSyncService.syncStationInfo();
-                // 重新搜索
-                result = page(page, queryWrapper);
-            } catch (Exception e) {
-                log.error("同步数据失败", e);
+            List<ChargingStation> matched = result.getStations();
+            stations = offset >= matched.size() ? Collections.emptyList()
+                    : matched.subList(offset, Math.min(limit, matched.size()));
+            matchCount = result.getTotal();
+            if (snapshot == null) {
+                snapshotToken = stationSearchSnapshotCache.save(query,
+                        matched.stream().map(ChargingStation::getStationId).collect(Collectors.toList()), matchCount);
             }
         }
+        boolean hasMore = limit < matchCount;
+        Long total = Boolean.FALSE.equals(request.getCountTotal()) ? null : (long) matchCount;
+
+        double[] distances = calculateDistances(stations, request.getLatitude(), request.getLongitude());
+        List<StationListResponse> responseList = convertToStationList(stations, distances);
+        PageResponse<StationListResponse> response = toPageResponse(responseList, total, hasMore, request);
+        response.setSnapshotToken(snapshotToken);
+        return response;
+    }
+
+    /**
+     * 按ID顺序取充电站，优先取搜索索引中的充电站，其余一次IN查询补齐，已不存在的跳过
+     */
+    private List<ChargingStation> loadStations(List<String> stationIds) {
+        Map<String, ChargingStation> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String stationId : stationIds) {
+            ChargingStation station = stationSearchIndex.get(stationId);
+            if (station != null) {
+                found.put(stationId, station);
+            } else {
+                missing.add(stationId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            stationMapper.selectList(new LambdaQueryWrapper<ChargingStation>()
+                            .in(ChargingStation::getStationId, missing))
+                    .forEach(station -> found.put(station.getStationId(), station));
+        }
+        return stationIds.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<StationSuggestion> suggestStations(String prefix, int limit) {
+        return stationSuggestIndex.suggest(prefix, Math.min(limit, StationSuggestIndex.MAX_LIMIT)).stream()
+                .map(station -> {
+                    StationSuggestion suggestion = new StationSuggestion();
+                    suggestion.setStationId(station.getStationId());
+                    suggestion.setStationName(station.getStationName());
+                    suggestion.setAddress(station.getAddress());
+                    return suggestion;
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 搜索索引未就绪时按关键词模糊查询数据库
+     */
+    private PageResponse<StationListResponse> searchStationsFromDb(StationQueryRequest request, Integer status) {
+        // 分页查询，总数与当前页一次查出；多取一条用于判断是否还有下一页
+        int offset = (request.getPageNum() - 1) * request.getPageSize();
+        boolean countTotal = !Boolean.FALSE.equals(request.getCountTotal());
+        String keyword = escapeLike(request.getKeyword());
+        List<StationRecord> records = stationMapper.searchStations(
+                keyword, status, countTotal, offset, request.getPageSize() + 1);
+
+        // 搜索结果为空且本地没有任何充电站数据时，在后台触发同步
+        if (records.isEmpty() && request.getPageNum() == 1) {
+            stationSyncTrigger.triggerIfEmpty("搜索无结果");
+        }
+
+        boolean hasMore = records.size() > request.getPageSize();
+        List<ChargingStation> stations = records.stream()
+                .limit(request.getPageSize())
+                .collect(Collectors.toList());
+        Long total = null;
+        if (countTotal && !records.isEmpty()) {
+            total = records.get(0).getTotalCount();
+        } else if (countTotal) {
+            // 超出最后一页时窗口函数拿不到总数，补一次统计
+            total = offset == 0 ? 0L : stationMapper.searchStations(keyword, status, true, 0, 1).stream()
+                    .findFirst().map(StationRecord::getTotalCount).orElse(0L);
+        }
 
         // 转换为响应DTO
-        List<StationListResponse> responseList = convertToStationList(result.getRecords(), request);
+        double[] distances = calculateDistances(stations, request.getLatitude(), request.getLongitude());
+        List<StationListResponse> responseList = convertToStationList(stations, distances);
 
-        return PageResponse.of(responseList, result.getTotal(), request.getPageNum(), request.getPageSize());
+        return toPageResponse(responseList, total, hasMore, request);
+    }
+
+    /**
+     * 转义 LIKE 通配符，关键词按字面匹配，与搜索索引的子串匹配一致
+     */
+    private static String escapeLike(String keyword) {
+        if (keyword == null) {
+            return null;
+        }
+        return keyword.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 
     @Override
     public StationDetailResponse getStationDetail(String stationId, BigDecimal latitude, BigDecimal longitude) {
+        StationDetailResponse cached = stationDetailCache.get(stationId,
+                stationVersionTracker.getVersion(stationId), this::loadStationDetail);
+        if (cached == null) {
+            throw new BusinessException("充电站不存在");
+        }
+        return toDetailResponse(cached, latitude, longitude);
+    }
+
+    @Override
+    public Stream<StationDetailResponse> getStationDetails(StationBatchDetailRequest request) {
+        List<String> stationIds = new ArrayList<>(new LinkedHashSet<>(request.getStationIds()));
+        Map<String, StationDetailResponse> details = stationDetailCache.getAll(stationIds,
+                stationVersionTracker::getVersion, this::loadStationDetails);
+        // 按请求顺序逐个填充距离，不存在的充电站跳过
+        return stationIds.stream()
+                .map(details::get)
+                .filter(Objects::nonNull)
+                .map(detail -> toDetailResponse(detail, request.getLatitude(), request.getLongitude()));
+    }
+
+    /**
+     * 缓存实例共享，复制后再填充用户距离，并以状态存储和汇总信息覆盖充电桩实时状态
+     */
+    private StationDetailResponse toDetailResponse(StationDetailResponse cached, BigDecimal latitude, BigDecimal longitude) {
+        StationDetailResponse response = new StationDetailResponse();
+        BeanUtils.copyProperties(cached, response);
+        // 从Redis读回的详情不含静态字段片段
+        if (response.getStaticFragment() == null) {
+            response.setStaticFragment(stationJsonFragments.getIfPresent(response.getStationId()));
+        }
+        if (latitude != null && longitude != null &&
+                response.getLatitude() != null && response.getLongitude() != null) {
+            response.setDistance(GeoUtil.distanceKm(latitude.doubleValue(), longitude.doubleValue(),
+                    response.getLatitude().doubleValue(), response.getLongitude().doubleValue()));
+        }
+
+        if (connectorStatusStore.isReady() && response.getConnectors() != null) {
+            response.setConnectors(response.getConnectors().stream().map(connector -> {
+                ConnectorStatusStore.ConnectorState state = connectorStatusStore.get(connector.getConnectorId());
+                if (state == null || Integer.valueOf(state.getStatus()).equals(connector.getStatus())) {
+                    return connector;
+                }
+                StationDetailResponse.ConnectorDetail live = new StationDetailResponse.ConnectorDetail();
+                BeanUtils.copyProperties(connector, live);
+                live.setStatus(state.getStatus());
+                live.setStatusText(ConnectorStatusEnum.getDesc(state.getStatus()));
+                return live;
+            }).collect(Collectors.toList()));
+        }
+        StationSummary summary = stationSummaryService.isReady()
+                ? stationSummaryService.getSummary(response.getStationId()) : null;
+        if (summary != null) {
+            response.setTotalConnectors(summary.getTotalConnectors());
+            response.setAvailableConnectors(summary.getIdleConnectors());
+            response.setChargingConnectors(summary.getChargingConnectors());
+            response.setFaultConnectors(summary.getFaultConnectors());
+        }
+        return response;
+    }
+
+    /**
+     * 以状态存储中的实时状态覆盖数据库中的充电桩状态，数据库由状态存储异步写回，可能滞后
+     */
+    private ChargingConnector withLiveStatus(ChargingConnector connector) {
+        if (connectorStatusStore.isReady()) {
+            ConnectorStatusStore.ConnectorState state = connectorStatusStore.get(connector.getConnectorId());
+            if (state != null) {
+                connector.setStatus(state.getStatus());
+                connector.setStatusUpdateTime(state.getStatusUpdateTime());
+            }
+        }
+        return connector;
+    }
+
+    private ConnectorItem withLiveStatus(ConnectorItem item) {
+        if (connectorStatusStore.isReady()) {
+            ConnectorStatusStore.ConnectorState state = connectorStatusStore.get(item.getConnectorId());
+            if (state != null) {
+                item.setStatus(state.getStatus());
+                item.setStatusUpdateTime(state.getStatusUpdateTime());
+            }
+        }
+        return item;
+    }
+
+    /**
+     * 批量加载充电站详情，充电站和充电桩各一次IN查询
+     */
+    private Map<String, StationDetailResponse> loadStationDetails(Collection<String> stationIds) {
+        List<ChargingStation> stations = list(new LambdaQueryWrapper<ChargingStation>()
+                .in(ChargingStation::getStationId, stationIds));
+        if (stations.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, List<ChargingConnector>> connectorsByStation = connectorMapper.selectList(
+                        new LambdaQueryWrapper<ChargingConnector>()
+                                .in(ChargingConnector::getStationId, stations.stream()
+                                        .map(ChargingStation::getStationId)
+                                        .collect(Collectors.toList()))
+                                .orderByAsc(ChargingConnector::getConnectorId))
+                .stream()
+                .collect(Collectors.groupingBy(ChargingConnector::getStationId));
+
+        Map<String, StationDetailResponse> details = new HashMap<>(stations.size() * 2);
+        for (ChargingStation station : stations) {
+            details.put(station.getStationId(), buildStationDetail(station,
+                    connectorsByStation.getOrDefault(station.getStationId(), Collections.emptyList())));
+        }
+        return details;
+    }
+
+    /**
+     * 从数据库加载不含距离的充电站详情，充电站不存在时返回null
+     */
+    private StationDetailResponse loadStationDetail(String stationId) {
         // 查询充电站信息
         ChargingStation station = getOne(new LambdaQueryWrapper<ChargingStation>()
                 .eq(ChargingStation::getStationId, stationId));
 
         if (station == null) {
-            throw new BusinessException("充电站不存在");
+            return null;
         }
 
         // 查询充电桩信息
@@ -143,8 +398,15 @@ public class ChargingStationServiceImpl extends ServiceImpl<ChargingStationMappe
                         .eq(ChargingConnector::getStationId, stationId)
                         .orderByAsc(ChargingConnector::getConnectorId)
         );
+        return buildStationDetail(station, connectors);
+    }
 
-        // 构建响应对象
+    /**
+     * 组装不含距离的充电站详情
+     */
+    private StationDetailResponse buildStationDetail(ChargingStation station, List<ChargingConnector> connectors) {
+        String stationId = station.getStationId();
+        // 构建响应对象，详情缓存写入Redis时不含片段，读回后按字段输出，距离也按坐标计算，静态字段仍逐个填充
         StationDetailResponse response = new StationDetailResponse();
         response.setStationId(station.getStationId());
         response.setStationName(station.getStationName());
@@ -157,25 +419,27 @@ public class ChargingStationServiceImpl extends ServiceImpl<ChargingStationMappe
         response.setOpeningHours(station.getOpeningHours());
         response.setStationStatus(station.getStationStatus());
         response.setStatusText(StationStatusEnum.getDesc(station.getStationStatus()));
-
-        // 计算距离
-        if (latitude != null && longitude != null &&
-                station.getLatitude() != null && station.getLongitude() != null) {
-            BigDecimal distance = calculateDistance(latitude, longitude,
-                    station.getLatitude(), station.getLongitude());
-            response.setDistance(distance);
+        response.setStaticFragment(stationJsonFragments.get(station));
+
+        // 统计充电桩信息，汇总信息已加载时直接读取
+        StationSummary summary = stationSummaryService.isReady()
+                ? stationSummaryService.getSummary(stationId) : null;
+        if (summary != null) {
+            response.setTotalConnectors(summary.getTotalConnectors());
+            response.setAvailableConnectors(summary.getIdleConnectors());
+            response.setChargingConnectors(summary.getChargingConnectors());
+            response.setFaultConnectors(summary.getFaultConnectors());
+        } else {
+            response.setTotalConnectors(connectors.size());
+
+            Map<Integer, Long> statusCount = connectors.stream()
+                    .collect(Collectors.groupingBy(ChargingConnector::getStatus, Collectors.counting()));
+
+            response.setAvailableConnectors(statusCount.getOrDefault(1, 0L).intValue()); // 空闲
+            response.setChargingConnectors(statusCount.getOrDefault(2, 0L).intValue()); // 充电中
+            response.setFaultConnectors(statusCount.getOrDefault(255, 0L).intValue()); // 故障
         }
 
-        // 统计充电桩信息
-        response.setTotalConnectors(connectors.size());
-
-        Map<Integer, Long> statusCount = connectors.stream()
-                .collect(Collectors.groupingBy(ChargingConnector::getStatus, Collectors.counting()));
-
-        response.setAvailableConnectors(statusCount.getOrDefault(1, 0L).intValue()); // 空闲
-        response.setChargingConnectors(statusCount.getOrDefault(2, 0L).intValue()); // 充电中
-        response.setFaultConnectors(statusCount.getOrDefault(255, 0L).intValue()); // 故障
-
         // 转换充电桩详细信息
         List<StationDetailResponse.ConnectorDetail> connectorInfos = connectors.stream()
                 .map(this::convertToConnectorInfo)
@@ -186,10 +450,31 @@ public class ChargingStationServiceImpl extends ServiceImpl<ChargingStationMappe
     }
 
     @Override
-    public List<ChargingConnector> getStationConnectors(String stationId) {
-        return connectorMapper.selectList(new LambdaQueryWrapper<ChargingConnector>()
-                .eq(ChargingConnector::getStationId, stationId)
-                .orderByAsc(ChargingConnector::getConnectorId));
+    public String getStationVersion(String stationId) {
+        return stationVersionTracker.getVersion(stationId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamStationConnectors(String stationId, Consumer<ConnectorItem> action) {
+        try (Cursor<ConnectorItem> cursor = connectorMapper.streamByStation(stationId)) {
+            cursor.forEach(item -> action.accept(withLiveStatus(item)));
+        } catch (IOException e) {
+            log.warn("关闭充电桩游标失败: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamRegionConnectors(String province, String city, String district, Consumer<ConnectorItem> action) {
+        try (Cursor<ConnectorItem> cursor = connectorMapper.streamByRegion(
+                StringUtils.hasText(province) ? province : null,
+                StringUtils.hasText(city) ? city : null,
+                StringUtils.hasText(district) ? district : null)) {
+            cursor.forEach(item -> action.accept(withLiveStatus(item)));
+        } catch (IOException e) {
+            log.warn("关闭充电桩游标失败: {}", e.getMessage());
+        }
     }
 
     @Override
@@ -203,87 +488,389 @@ public class ChargingStationServiceImpl extends ServiceImpl<ChargingStationMappe
             throw new BusinessException("充电桩不存在");
         }
 
-        return connector;
+        return withLiveStatus(connector);
+    }
+
+    @Override
+    public MapClusterResponse queryMapClusters(MapClusterRequest request) {
+        int zoom = Math.max(StationTilePyramid.MIN_ZOOM, Math.min(StationTilePyramid.MAX_ZOOM, request.getZoom()));
+        List<StationTilePyramid.Tile> tiles = stationTilePyramid.query(
+                request.getMinLatitude().doubleValue(),
+                request.getMaxLatitude().doubleValue(),
+                request.getMinLongitude().doubleValue(),
+                request.getMaxLongitude().doubleValue(),
+                zoom
+        );
+
+        List<MapClusterResponse.Cluster> clusters = tiles.stream().map(tile -> {
+            MapClusterResponse.Cluster cluster = new MapClusterResponse.Cluster();
+            cluster.setTileX(tile.getX());
+            cluster.setTileY(tile.getY());
+            cluster.setStationCount(tile.getStationCount());
+            cluster.setTotalConnectors(tile.getTotalConnectors());
+            cluster.setIdleConnectors(tile.getIdleConnectors());
+            cluster.setLatitude(BigDecimal.valueOf(tile.getCentroidLatitude()).setScale(7, RoundingMode.HALF_UP));
+            cluster.setLongitude(BigDecimal.valueOf(tile.getCentroidLongitude()).setScale(7, RoundingMode.HALF_UP));
+            return cluster;
+        }).collect(Collectors.toList());
+
+        MapClusterResponse response = new MapClusterResponse();
+        response.setZoom(zoom);
+        response.setClusters(clusters);
+        return response;
+    }
+
+    @Override
+    public List<NearestConnectorResponse> queryNearestConnectors(NearestConnectorRequest request) {
+        if (!stationGeoIndex.isReady()) {
+            throw new BusinessException("充电站数据加载中，请稍后重试");
+        }
+        int limit = request.getLimit();
+        boolean onlyAvailable = Boolean.TRUE.equals(request.getOnlyAvailable());
+        // 汇总信息已加载时先排除没有符合条件充电桩的充电站，避免查询不可能命中的充电站
+        Predicate<String> facetFilter = stationSummaryService.isReady()
+                ? buildFacetFilter(request.getConnectorType(), onlyAvailable,
+                        request.getMinPower(), request.getMaxElectricityFee())
+                : null;
+
+        // 空闲状态以状态存储为准，数据库中的状态可能滞后
+        boolean liveStatus = connectorStatusStore.isReady();
+        Iterator<StationGeoIndex.Hit> candidates = stationGeoIndex.nearest(
+                request.getLatitude().doubleValue(), request.getLongitude().doubleValue());
+        List<NearestConnectorResponse> result = new ArrayList<>(limit);
+        int batches = 0;
+        while (result.size() < limit && candidates.hasNext()) {
+            // 按距离顺序取一批候选充电站，一次IN查询加载其中符合条件的充电桩
+            List<StationGeoIndex.Hit> batch = new ArrayList<>(NEAREST_BATCH_SIZE);
+            while (batch.size() < NEAREST_BATCH_SIZE && candidates.hasNext()) {
+                StationGeoIndex.Hit hit = candidates.next();
+                if (facetFilter == null || facetFilter.test(hit.getStation().getStationId())) {
+                    batch.add(hit);
+                }
+            }
+            if (batch.isEmpty()) {
+                break;
+            }
+            batches++;
+
+            Map<String, List<ChargingConnector>> connectorsByStation = connectorMapper.selectList(
+                    new LambdaQueryWrapper<ChargingConnector>()
+                            .in(ChargingConnector::getStationId, batch.stream()
+                                    .map(hit -> hit.getStation().getStationId())
+                                    .collect(Collectors.toList()))
+                            .eq(request.getConnectorType() != null,
+                                    ChargingConnector::getConnectorType, request.getConnectorType())
+                            .eq(onlyAvailable && !liveStatus, ChargingConnector::getStatus,
+                                    ConnectorStatusEnum.IDLE.getCode())
+                            .ge(request.getMinPower() != null,
+                                    ChargingConnector::getRatedPower, request.getMinPower())
+                            .le(request.getMaxElectricityFee() != null,
+                                    ChargingConnector::getElectricityFee, request.getMaxElectricityFee())
+                            .orderByAsc(ChargingConnector::getConnectorId))
+                    .stream()
+                    .map(this::withLiveStatus)
+                    .filter(connector -> !onlyAvailable
+                            || ConnectorStatusEnum.IDLE.getCode().equals(connector.getStatus()))
+                    .collect(Collectors.groupingBy(ChargingConnector::getStationId));
+
+            // 批内充电站已按距离排序，后续批次只会更远，凑满数量即可结束
+            for (StationGeoIndex.Hit hit : batch) {
+                for (ChargingConnector connector : connectorsByStation.getOrDefault(
+                        hit.getStation().getStationId(), Collections.emptyList())) {
+                    if (result.size() >= limit) {
+                        break;
+                    }
+                    result.add(convertToNearestConnector(hit, connector));
+                }
+            }
+        }
+        log.debug("最近充电桩查询完成，查询{}批，返回{}个", batches, result.size());
+        return result;
     }
 
     /**
-     * 转换为充电站列表响应DTO
+     * 分页查询附近充电站，空间索引就绪时走内存索引，否则回退到数据库查询
+     * <p>
+     * 传入游标时从游标之后取一页，不再跳过前面的记录
      */
-    private List<StationListResponse> convertToStationList(List<ChargingStation> stations, StationQueryRequest request) {
-        if (stations.isEmpty()) {
-            return new ArrayList<>();
+    private NearbyPage findNearbyStations(StationQueryRequest request, NearbyCursor cursor) {
+        // 计算分页偏移量
+        int offset = (request.getPageNum() - 1) * request.getPageSize();
+        int pageSize = request.getPageSize();
+
+        // 按汇总信息筛选，汇总信息未加载时回退到数据库查询
+        Predicate<String> facetFilter = buildFacetFilter(request);
+        if (stationGeoIndex.isReady() && (facetFilter == null || stationSummaryService.isReady())) {
+            List<StationGeoIndex.Hit> hits = stationNearbyCache.isEnabled()
+                    ? queryNearbyCached(request, facetFilter)
+                    : filterHits(stationGeoIndex.queryNearby(
+                            request.getLatitude().doubleValue(),
+                            request.getLongitude().doubleValue(),
+                            request.getRadius()), facetFilter);
+
+            // 综合推荐按加权得分排序，默认按距离排序
+            ToDoubleFunction<StationGeoIndex.Hit> sortKey = StationGeoIndex.Hit::getDistance;
+            if (StationSortTypeEnum.AVAILABILITY.getCode().equals(request.getSortType())
+                    && stationSummaryService.isReady()) {
+                Map<String, Double> ranks = new HashMap<>();
+                for (StationGeoIndex.Hit hit : hits) {
+                    ranks.put(hit.getStation().getStationId(), availabilityRank(hit, request.getRadius()));
+                }
+                sortKey = hit -> ranks.get(hit.getStation().getStationId());
+                hits = new ArrayList<>(hits);
+                hits.sort(Comparator.comparingDouble(sortKey).thenComparing(hit -> hit.getStation().getStationId()));
+            }
+
+            int from = cursor != null ? cursor.positionIn(hits, sortKey) : Math.min(offset, hits.size());
+            int to = Math.min(from + pageSize, hits.size());
+            List<StationGeoIndex.Hit> pageHits = hits.subList(from, to);
+            boolean hasMore = to < hits.size();
+            return new NearbyPage(pageHits, (long) hits.size(), hasMore,
+                    hasMore ? NearbyCursor.after(pageHits, sortKey) : null);
         }
 
-        // 批量查询充电桩统计信息
-        List<String> stationIds = stations.stream()
-                .map(ChargingStation::getStationId)
+        String boundingBox = GeoUtil.toWktPolygon(GeoUtil.boundingBox(
+                request.getLatitude().doubleValue(), request.getLongitude().doubleValue(), request.getRadius()));
+        boolean countTotal = !Boolean.FALSE.equals(request.getCountTotal());
+        // 总数与当前页一次查出；多取一条用于判断是否还有下一页
+        List<StationRecord> records = stationMapper.findNearbyStations(
+                request.getLatitude(),
+                request.getLongitude(),
+                request.getRadius(),
+                boundingBox,
+                cursor != null ? cursor.getSortKey() : null,
+                cursor != null ? cursor.getStationId() : null,
+                countTotal,
+                request,
+                offset,
+                pageSize + 1
+        );
+        Long total = null;
+        if (countTotal && !records.isEmpty()) {
+            total = records.get(0).getTotalCount();
+        } else if (countTotal) {
+            // 超出最后一页时窗口函数拿不到总数，补一次统计
+            total = cursor == null && offset == 0 ? 0L : stationMapper.countNearbyStations(
+                    request.getLatitude(),
+                    request.getLongitude(),
+                    request.getRadius(),
+                    boundingBox,
+                    request
+            );
+        }
+        List<StationGeoIndex.Hit> hits = records.stream()
+                .limit(pageSize)
+                .map(station -> new StationGeoIndex.Hit(station, station.getDistance()))
+                .collect(Collectors.toList());
+        boolean hasMore = records.size() > pageSize;
+        return new NearbyPage(hits, total, hasMore,
+                hasMore ? NearbyCursor.after(hits, StationGeoIndex.Hit::getDistance) : null);
+    }
+
+    /**
+     * 通过查询缓存获取附近充电站：缓存中是用户所在网格的候选充电站ID，按用户位置重新计算距离并精确过滤
+     */
+    private List<StationGeoIndex.Hit> queryNearbyCached(StationQueryRequest request,
+                                                        Predicate<String> facetFilter) {
+        List<String> candidateIds = stationNearbyCache.getCandidates(
+                request.getLatitude().doubleValue(),
+                request.getLongitude().doubleValue(),
+                request.getRadius(),
+                facetKey(request),
+                (centerLat, centerLng, coverRadius) -> filterHits(
+                        stationGeoIndex.queryNearby(centerLat, centerLng, coverRadius), facetFilter).stream()
+                        .map(hit -> hit.getStation().getStationId())
+                        .collect(Collectors.toList()));
+
+        List<ChargingStation> candidates = candidateIds.stream()
+                .map(stationGeoIndex::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        double[] distances = calculateDistances(candidates, request.getLatitude(), request.getLongitude());
+        List<StationGeoIndex.Hit> hits = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            if (distances[i] <= request.getRadius()) {
+                hits.add(new StationGeoIndex.Hit(candidates.get(i), distances[i]));
+            }
+        }
+        hits.sort(Comparator.comparingDouble(StationGeoIndex.Hit::getDistance)
+                .thenComparing(hit -> hit.getStation().getStationId()));
+        return hits;
+    }
+
+    private List<StationGeoIndex.Hit> filterHits(List<StationGeoIndex.Hit> hits, Predicate<String> facetFilter) {
+        if (facetFilter == null) {
+            return hits;
+        }
+        return hits.stream()
+                .filter(hit -> facetFilter.test(hit.getStation().getStationId()))
                 .collect(Collectors.toList());
+    }
+
+    /**
+     * 筛选条件的缓存标识
+     */
+    private String facetKey(StationQueryRequest request) {
+        return request.getConnectorType() + ":" + Boolean.TRUE.equals(request.getOnlyAvailable())
+                + ":" + plain(request.getMinPower()) + ":" + plain(request.getMaxElectricityFee());
+    }
+
+    private static String plain(BigDecimal value) {
+        return value == null ? "" : value.stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * 综合推荐排序值，越小越靠前：距离越近、空闲桩越多、故障率越低排序越靠前
+     */
+    private double availabilityRank(StationGeoIndex.Hit hit, double radius) {
+        double distanceScore = hit.getDistance() / radius;
+        double idleScore = 0;
+        double faultRatio = 0;
+        StationSummary summary = stationSummaryService.getSummary(hit.getStation().getStationId());
+        if (summary != null && summary.getTotalConnectors() > 0) {
+            idleScore = Math.min(summary.getIdleConnectors(), IDLE_SATURATION) / (double) IDLE_SATURATION;
+            faultRatio = summary.getFaultConnectors() / (double) summary.getTotalConnectors();
+        }
+        return RANK_WEIGHT_DISTANCE * distanceScore - RANK_WEIGHT_IDLE * idleScore + RANK_WEIGHT_FAULT * faultRatio;
+    }
+
+    /**
+     * 根据充电桩类型、空闲状态、功率和电费构建充电站筛选条件，未设置任何条件时返回null
+     * <p>
+     * 先按汇总信息的整体能力剪枝，再确认有同一个充电桩同时满足全部条件，与数据库查询的 EXISTS 条件一致
+     */
+    private Predicate<String> buildFacetFilter(StationQueryRequest request) {
+        return buildFacetFilter(request.getConnectorType(), Boolean.TRUE.equals(request.getOnlyAvailable()),
+                request.getMinPower(), request.getMaxElectricityFee());
+    }
 
-        List<Map<String, Object>> connectorStats = connectorMapper.batchCountConnectorsByStatus(stationIds);
+    private Predicate<String> buildFacetFilter(Integer connectorType, boolean onlyAvailable,
+                                               BigDecimal minPower, BigDecimal maxFee) {
+        int capabilityMask;
+        if (ConnectorTypeEnum.DC.getCode().equals(connectorType)) {
+            capabilityMask = onlyAvailable ? StationSummary.IDLE_DC : StationSummary.DC;
+        } else if (ConnectorTypeEnum.AC.getCode().equals(connectorType)) {
+            capabilityMask = onlyAvailable ? StationSummary.IDLE_AC : StationSummary.AC;
+        } else {
+            capabilityMask = onlyAvailable ? StationSummary.IDLE_DC | StationSummary.IDLE_AC : 0;
+        }
+        if (connectorType == null && !onlyAvailable && minPower == null && maxFee == null) {
+            return null;
+        }
 
-        // 按充电站ID分组
-        Map<String, Map<Integer, Integer>> stationConnectorStats = new HashMap<>();
-        for (Map<String, Object> stat : connectorStats) {
-            String stationId = (String) stat.get("station_id");
-            Integer status = (Integer) stat.get("status");
-            Integer count = ((Number) stat.get("count")).intValue();
+        return stationId -> {
+            StationSummary summary = stationSummaryService.getSummary(stationId);
+            return summary != null
+                    && (capabilityMask == 0 || summary.hasCapability(capabilityMask))
+                    && (minPower == null || (summary.getMaxRatedPower() != null
+                            && summary.getMaxRatedPower().compareTo(minPower) >= 0))
+                    && (maxFee == null || (summary.getMinElectricityFee() != null
+                            && summary.getMinElectricityFee().compareTo(maxFee) <= 0))
+                    && stationSummaryService.hasMatchingConnector(stationId, connectorType, onlyAvailable,
+                            minPower, maxFee);
+        };
+    }
 
-            stationConnectorStats.computeIfAbsent(stationId, k -> new HashMap<>())
-                    .put(status, count);
+    /**
+     * 构建分页响应，不统计总数时只返回是否还有下一页
+     */
+    private PageResponse<StationListResponse> toPageResponse(List<StationListResponse> records, Long total,
+                                                             boolean hasMore, StationQueryRequest request) {
+        if (total == null) {
+            return PageResponse.ofSlice(records, hasMore, request.getPageNum(), request.getPageSize());
         }
+        PageResponse<StationListResponse> response =
+                PageResponse.of(records, total, request.getPageNum(), request.getPageSize());
+        response.setHasMore(hasMore);
+        return response;
+    }
 
-        // 查询价格范围（简化处理，这里可以优化为批量查询）
-        return stations.stream().map(station -> {
+    /**
+     * 转换为充电站列表响应DTO
+     *
+     * @param distances 与stations一一对应的距离（公里），无位置信息时为空
+     */
+    private List<StationListResponse> convertToStationList(List<ChargingStation> stations, double[] distances) {
+        if (stations.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // 充电桩数量和价格范围取自汇总信息，整页只需一次批量查询
+        Map<String, StationSummary> summaries = loadSummaries(stations.stream()
+                .map(ChargingStation::getStationId)
+                .collect(Collectors.toList()));
+
+        List<StationListResponse> responseList = new ArrayList<>(stations.size());
+        for (int i = 0; i < stations.size(); i++) {
+            ChargingStation station = stations.get(i);
+            // 静态字段只输出片段，不再逐个填充
             StationListResponse response = new StationListResponse();
             response.setStationId(station.getStationId());
-            response.setStationName(station.getStationName());
-            response.setAddress(station.getAddress());
-            response.setLongitude(station.getLongitude());
-            response.setLatitude(station.getLatitude());
-            response.setStationTel(station.getStationTel());
-            response.setServiceFee(station.getServiceFee());
-            response.setOpeningHours(station.getOpeningHours());
-            response.setStationStatus(station.getStationStatus());
-            response.setStatusText(StationStatusEnum.getDesc(station.getStationStatus()));
-
-            // 计算距离
-            if (request.getLatitude() != null && request.getLongitude() != null &&
-                    station.getLatitude() != null && station.getLongitude() != null) {
-                BigDecimal distance = calculateDistance(request.getLatitude(), request.getLongitude(),
-                        station.getLatitude(), station.getLongitude());
-                response.setDistance(distance);
+            response.setStaticFragment(stationJsonFragments.get(station));
+
+            // 设置距离
+            if (distances != null && !Double.isNaN(distances[i])) {
+                response.setDistance(distances[i]);
             }
 
-            // 设置充电桩统计信息
-            Map<Integer, Integer> stats = stationConnectorStats.getOrDefault(station.getStationId(), new HashMap<>());
-            int total = stats.values().stream().mapToInt(Integer::intValue).sum();
-            response.setTotalConnectors(total);
-            response.setAvailableConnectors(stats.getOrDefault(1, 0)); // 空闲
-            response.setChargingConnectors(stats.getOrDefault(2, 0)); // 充电中
-            response.setFaultConnectors(stats.getOrDefault(255, 0)); // 故障
-
-            // 查询价格范围（这里简化处理）
-            List<ChargingConnector> connectors = getStationConnectors(station.getStationId());
-            if (!connectors.isEmpty()) {
-                OptionalDouble minFee = connectors.stream()
-                        .filter(c -> c.getElectricityFee() != null)
-                        .mapToDouble(c -> c.getElectricityFee().doubleValue())
-                        .min();
-                OptionalDouble maxFee = connectors.stream()
-                        .filter(c -> c.getElectricityFee() != null)
-                        .mapToDouble(c -> c.getElectricityFee().doubleValue())
-                        .max();
-
-                if (minFee.isPresent()) {
-                    response.setMinElectricityFee(BigDecimal.valueOf(minFee.getAsDouble()));
-                }
-                if (maxFee.isPresent()) {
-                    response.setMaxElectricityFee(BigDecimal.valueOf(maxFee.getAsDouble()));
-                }
+            // 设置充电桩统计信息和价格范围
+            StationSummary summary = summaries.get(station.getStationId());
+            if (summary != null) {
+                response.setTotalConnectors(summary.getTotalConnectors());
+                response.setAvailableConnectors(summary.getIdleConnectors());
+                response.setChargingConnectors(summary.getChargingConnectors());
+                response.setFaultConnectors(summary.getFaultConnectors());
+                response.setMinElectricityFee(summary.getMinElectricityFee());
+                response.setMaxElectricityFee(summary.getMaxElectricityFee());
+            } else {
+                response.setTotalConnectors(0);
+                response.setAvailableConnectors(0);
+                response.setChargingConnectors(0);
+                response.setFaultConnectors(0);
             }
 
-            return response;
-        }).collect(Collectors.toList());
+            responseList.add(response);
+        }
+        return responseList;
+    }
+
+    private NearestConnectorResponse convertToNearestConnector(StationGeoIndex.Hit hit, ChargingConnector connector) {
+        ChargingStation station = hit.getStation();
+        NearestConnectorResponse response = new NearestConnectorResponse();
+        response.setStationId(station.getStationId());
+        response.setStationName(station.getStationName());
+        response.setAddress(station.getAddress());
+        response.setLatitude(station.getLatitude());
+        response.setLongitude(station.getLongitude());
+        response.setDistance(hit.getDistance());
+        response.setConnectorId(connector.getConnectorId());
+        response.setConnectorName(connector.getConnectorName());
+        response.setConnectorType(connector.getConnectorType());
+        response.setConnectorTypeText(ConnectorTypeEnum.getDesc(connector.getConnectorType()));
+        response.setRatedPower(connector.getRatedPower());
+        response.setElectricityFee(connector.getElectricityFee());
+        response.setServiceFee(connector.getServiceFee());
+        response.setStatus(connector.getStatus());
+        response.setStatusText(ConnectorStatusEnum.getDesc(connector.getStatus()));
+        return response;
+    }
+
+    /**
+     * 获取充电站汇总信息，内存汇总未加载时按整批充电站查询一次数据库，没有充电桩的充电站不在结果中
+     */
+    private Map<String, StationSummary> loadSummaries(List<String> stationIds) {
+        if (stationSummaryService.isReady()) {
+            Map<String, StationSummary> summaries = new HashMap<>(stationIds.size() * 2);
+            for (String stationId : stationIds) {
+                StationSummary summary = stationSummaryService.getSummary(stationId);
+                if (summary != null) {
+                    summaries.put(stationId, summary);
+                }
+            }
+            return summaries;
+        }
+        return connectorMapper.summarizeByStation(stationIds).stream()
+                .collect(Collectors.toMap(StationSummary::getStationId, summary -> summary));
     }
 
     /**
@@ -305,23 +892,97 @@ public class ChargingStationServiceImpl extends ServiceImpl<ChargingStationMappe
     }
 
     /**
-     * 计算两点间距离（公里）
+     * 批量计算用户位置到各充电站的距离（公里），无坐标的充电站距离为NaN
      */
-    private BigDecimal calculateDistance(BigDecimal lat1, BigDecimal lng1, BigDecimal lat2, BigDecimal lng2) {
-        final double EARTH_RADIUS = 6371; // 地球半径（公里）
+    private double[] calculateDistances(List<ChargingStation> stations, BigDecimal latitude, BigDecimal longitude) {
+        if (latitude == null || longitude == null) {
+            return null;
+        }
+        int size = stations.size();
+        double[] lats = new double[size];
+        double[] lngs = new double[size];
+        for (int i = 0; i < size; i++) {
+            ChargingStation station = stations.get(i);
+            boolean located = station.getLatitude() != null && station.getLongitude() != null;
+            lats[i] = located ? station.getLatitude().doubleValue() : Double.NaN;
+            lngs[i] = located ? station.getLongitude().doubleValue() : Double.NaN;
+        }
+        double[] distances = new double[size];
+        GeoUtil.distancesKm(latitude.doubleValue(), longitude.doubleValue(), lats, lngs, distances, size);
+        return distances;
+    }
 
-        double radLat1 = Math.toRadians(lat1.doubleValue());
-        double radLat2 = Math.toRadians(lat2.doubleValue());
-        double deltaLat = Math.toRadians(lat2.subtract(lat1).doubleValue());
-        double deltaLng = Math.toRadians(lng2.subtract(lng1).doubleValue());
+    /**
+     * 附近充电站分页结果
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class NearbyPage {
+        private final List<StationGeoIndex.Hit> hits;
+        private final Long total; // 不统计总数时为空
+        private final boolean hasMore;
+        private final String nextCursor;
+    }
 
-        double a = Math.sin(deltaLat / 2) * Math.sin(deltaLat / 2) +
-                Math.cos(radLat1) * Math.cos(radLat2) *
-                        Math.sin(deltaLng / 2) * Math.sin(deltaLng / 2);
+    /**
+     * 附近充电站分页游标，由上一页最后一条记录的排序值（按距离排序时为距离）和充电站ID组成
+     */
+    @Getter
+    @AllArgsConstructor
+    static class NearbyCursor {
+        private final double sortKey;
+        private final String stationId;
+
+        /**
+         * 以当前页最后一条记录生成游标
+         */
+        static String after(List<StationGeoIndex.Hit> pageHits, ToDoubleFunction<StationGeoIndex.Hit> sortKey) {
+            if (pageHits.isEmpty()) {
+                return null;
+            }
+            StationGeoIndex.Hit last = pageHits.get(pageHits.size() - 1);
+            return new NearbyCursor(sortKey.applyAsDouble(last), last.getStation().getStationId()).encode();
+        }
 
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        double distance = EARTH_RADIUS * c;
+        String encode() {
+            String raw = sortKey + "," + stationId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static NearbyCursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int sep = raw.indexOf(',');
+                double sortKey = Double.parseDouble(raw.substring(0, sep));
+                // NaN和无穷大不是合法的排序值，数据库回退查询会把它们作为绑定参数导致SQL错误
+                if (!Double.isFinite(sortKey)) {
+                    throw new IllegalArgumentException("非法排序值");
+                }
+                return new NearbyCursor(sortKey, raw.substring(sep + 1));
+            } catch (RuntimeException e) {
+                throw new BusinessException(400, "分页游标无效");
+            }
+        }
 
-        return BigDecimal.valueOf(distance).setScale(2, BigDecimal.ROUND_HALF_UP);
+        /**
+         * 游标之后第一条记录在有序结果中的位置
+         */
+        int positionIn(List<StationGeoIndex.Hit> hits, ToDoubleFunction<StationGeoIndex.Hit> sortKeyOf) {
+            int low = 0, high = hits.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                StationGeoIndex.Hit hit = hits.get(mid);
+                int cmp = Double.compare(sortKeyOf.applyAsDouble(hit), sortKey);
+                if (cmp == 0) {
+                    cmp = hit.getStation().getStationId().compareTo(stationId);
+                }
+                if (cmp <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
     }
 }
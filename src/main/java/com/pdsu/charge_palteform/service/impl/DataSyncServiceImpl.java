@@ -1,27 +1,43 @@
 package com.pdsu.charge_palteform.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.pdsu.charge_palteform.cache.StationChangeBroadcaster;
+import com.pdsu.charge_palteform.cache.StationDetailCache;
+import com.pdsu.charge_palteform.cache.StationJsonFragments;
+import com.pdsu.charge_palteform.cache.StationNearbyCache;
+import com.pdsu.charge_palteform.cache.StationVersionTracker;
+import com.pdsu.charge_palteform.config.ConnectorStatusSyncLease;
 import com.pdsu.charge_palteform.entity.ChargingConnector;
 import com.pdsu.charge_palteform.entity.ChargingStation;
+import com.pdsu.charge_palteform.entity.ConnectorStatusChange;
+import com.pdsu.charge_palteform.entity.StationChange;
 import com.pdsu.charge_palteform.entity.platefrom.station.ConnectorInfo;
 import com.pdsu.charge_palteform.entity.platefrom.station.ConnectorStatusInfo;
 import com.pdsu.charge_palteform.entity.platefrom.station.EquipmentInfo;
 import com.pdsu.charge_palteform.entity.platefrom.station.StationInfo;
+import com.pdsu.charge_palteform.exception.BusinessException;
+import com.pdsu.charge_palteform.index.ConnectorStatusStore;
+import com.pdsu.charge_palteform.index.StationGeoIndex;
+import com.pdsu.charge_palteform.index.StationSearchIndex;
+import com.pdsu.charge_palteform.index.StationSuggestIndex;
+import com.pdsu.charge_palteform.index.StationTilePyramid;
 import com.pdsu.charge_palteform.mapper.ChargingConnectorMapper;
 import com.pdsu.charge_palteform.mapper.ChargingStationMapper;
 import com.pdsu.charge_palteform.service.DataSyncService;
 import com.pdsu.charge_palteform.service.EnergyPlatformService;
+import com.pdsu.charge_palteform.service.StationSummaryService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.catalina.connector.Connector;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.CollectionUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -29,19 +45,54 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class DataSyncServiceImpl implements DataSyncService {
 
+    /**
+     * 批量写入时每条语句的最大行数
+     */
+    private static final int UPSERT_BATCH_SIZE = 500;
+
     private final EnergyPlatformService energyPlatformService;
     private final ChargingStationMapper stationMapper;
     private final ChargingConnectorMapper connectorMapper;
+    private final StationGeoIndex stationGeoIndex;
+    private final StationSearchIndex stationSearchIndex;
+    private final StationSuggestIndex stationSuggestIndex;
+    private final StationSummaryService stationSummaryService;
+    private final StationTilePyramid stationTilePyramid;
+    private final StationNearbyCache stationNearbyCache;
+    private final StationDetailCache stationDetailCache;
+    private final StationVersionTracker stationVersionTracker;
+    private final ConnectorStatusStore connectorStatusStore;
+    private final StationJsonFragments stationJsonFragments;
+    private final StationChangeBroadcaster stationChangeBroadcaster;
+    private final ConnectorStatusSyncLease connectorStatusSyncLease;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 充电站基础信息同步是否正在进行，定时任务、手动同步和后台触发共用，同一时间只运行一次
+     */
+    private final AtomicBoolean stationSyncRunning = new AtomicBoolean();
+
+    @PostConstruct
+    public void subscribeStationChanges() {
+        stationChangeBroadcaster.subscribe(this::onStationChange);
+    }
 
+    /**
+     * 每页在单独的事务中写入，提交后再更新内存索引、汇总信息和缓存，回滚的页不会更新内存状态
+     */
     @Override
-    @Transactional
     public void syncStationInfo() {
+        if (!stationSyncRunning.compareAndSet(false, true)) {
+            throw new BusinessException("充电站基础信息同步正在进行中，请稍后再试");
+        }
         log.info("开始同步充电站基础信息...");
         try {
             int pageNo = 1;
             int pageSize = 100;
             boolean hasMore = true;
             int totalSynced = 0;
+            int totalConnectors = 0;
+            long started = System.currentTimeMillis();
             while (hasMore) {
                 // 从电能平台获取充电站信息
                 List<StationInfo> stationInfos = energyPlatformService.queryStationsInfo(
@@ -50,61 +101,222 @@ public class DataSyncServiceImpl implements DataSyncService {
                     hasMore = false;
                     break;
                 }
-                // 处理每个充电站
-                for (StationInfo stationInfo : stationInfos) {
-                    syncSingleStation(stationInfo);
-                    totalSynced++;
+                // 整页批量写入，提交后更新内存状态
+                long pageStarted = System.currentTimeMillis();
+                try {
+                    SyncedPage page = transactionTemplate.execute(status -> syncStationPage(stationInfos));
+                    applyStationPage(page);
+                    int connectors = page.connectors.size();
+                    totalSynced += stationInfos.size();
+                    totalConnectors += connectors;
+                    log.info("已同步第{}页，本页{}个充电站、{}个充电桩，耗时{}ms",
+                            pageNo, stationInfos.size(), connectors, System.currentTimeMillis() - pageStarted);
+                } catch (Exception e) {
+                    log.error("同步第{}页充电站失败: {}", pageNo, e.getMessage());
                 }
                 // 如果返回的数据少于pageSize，说明已经是最后一页
                 if (stationInfos.size() < pageSize) {
                     hasMore = false;
                 }
                 pageNo++;
-                log.info("已同步第{}页，本页{}个充电站", pageNo - 1, stationInfos.size());
             }
-            log.info("充电站基础信息同步完成，共同步{}个充电站", totalSynced);
+            long elapsed = Math.max(1, System.currentTimeMillis() - started);
+            log.info("充电站基础信息同步完成，共同步{}个充电站、{}个充电桩，耗时{}ms，{}个充电站/秒、{}个充电桩/秒",
+                    totalSynced, totalConnectors, elapsed, totalSynced * 1000L / elapsed, totalConnectors * 1000L / elapsed);
+            rebuildSuggestIndex();
+            StationChange completed = new StationChange();
+            completed.setStationSyncCompleted(true);
+            stationChangeBroadcaster.publish(completed);
         } catch (Exception e) {
             log.error("同步充电站基础信息失败", e);
             throw new RuntimeException("同步充电站信息失败", e);
+        } finally {
+            stationSyncRunning.set(false);
+        }
+    }
+
+    /**
+     * 联想索引整体构建，充电站信息同步完成后重建一次
+     */
+    private void rebuildSuggestIndex() {
+        try {
+            stationSuggestIndex.rebuild();
+        } catch (Exception e) {
+            log.warn("重建充电站联想索引失败: {}", e.getMessage());
         }
     }
 
+    /**
+     * 每批充电站的数据库写入在单独的事务中执行，提交后再更新汇总信息、地图聚合和缓存，
+     * 某一批失败只影响该批，不回滚已完成的批次，也不会让内存状态领先于数据库
+     * <p>
+     * 只由持有同步租约的实例执行，状态变化广播给其他实例
+     */
     @Override
-    @Transactional
     public void syncConnectorStatus() {
+        if (!connectorStatusSyncLease.tryAcquire()) {
+            throw new BusinessException("充电桩状态同步由其他实例执行");
+        }
         log.info("开始同步充电桩状态信息...");
+        // 获取所有充电站ID
+        List<ChargingStation> stations = stationMapper.selectList(null);
+        List<String> stationIds = stations.stream()
+                .map(ChargingStation::getStationId)
+                .collect(Collectors.toList());
+        if (CollectionUtils.isEmpty(stationIds)) {
+            log.warn("没有找到充电站，请先同步充电站基础信息");
+            return;
+        }
+        // 分批查询状态（每次最多50个）
+        int batchSize = 50;
+        int failed = 0;
+        for (int i = 0; i < stationIds.size(); i += batchSize) {
+            int endIndex = Math.min(i + batchSize, stationIds.size());
+            List<String> batchIds = stationIds.subList(i, endIndex);
+            int batchNo = (i / batchSize) + 1;
+            try {
+                syncConnectorStatusBatch(batchNo, batchIds);
+            } catch (Exception e) {
+                failed++;
+                log.error("同步第{}批充电桩状态失败: {}", batchNo, e.getMessage());
+            }
+        }
+        if (failed > 0) {
+            log.warn("充电桩状态同步完成，{}批失败，将在下次同步时重试", failed);
+        } else {
+            log.info("充电桩状态同步完成");
+        }
+    }
+
+    /**
+     * 同步一批充电站的充电桩状态
+     * <p>
+     * 状态存储中的充电桩在存储中比较并更新，由存储异步写回数据库，不参与事务；
+     * 其余充电桩在本批事务中写入数据库。事务提交后按全部状态变化更新内存状态，
+     * 事务失败时只应用已写入状态存储的变化。
+     */
+    private void syncConnectorStatusBatch(int batchNo, List<String> batchIds) {
+        // 查询这批充电站的状态
+        var statusInfos = energyPlatformService.queryStationStatus(batchIds);
+        List<ConnectorStatusInfo> connectorStatuses = new ArrayList<>();
+        for (var statusInfo : statusInfos) {
+            if (!CollectionUtils.isEmpty(statusInfo.getStationStatusInfos())) {
+                connectorStatuses.addAll(statusInfo.getStationStatusInfos());
+            }
+        }
+        // 与已知状态比较，只写入状态变化的充电桩
+        LocalDateTime now = LocalDateTime.now();
+        List<ConnectorStatusInfo> unstored = new ArrayList<>();
+        List<ConnectorStatusChange> changes = updateStoredStatus(connectorStatuses, now, unstored);
         try {
-            // 获取所有充电站ID
-            List<ChargingStation> stations = stationMapper.selectList(null);
-            List<String> stationIds = stations.stream()
-                    .map(ChargingStation::getStationId)
-                    .collect(Collectors.toList());
-            if (CollectionUtils.isEmpty(stationIds)) {
-                log.warn("没有找到充电站，请先同步充电站基础信息");
-                return;
-            }
-            // 分批查询状态（每次最多50个）
-            int batchSize = 50;
-            for (int i = 0; i < stationIds.size(); i += batchSize) {
-                int endIndex = Math.min(i + batchSize, stationIds.size());
-                List<String> batchIds = stationIds.subList(i, endIndex);
-                // 查询这批充电站的状态
-                var statusInfos = energyPlatformService.queryStationStatus(batchIds);
-                // 更新充电桩状态
-                for (var statusInfo : statusInfos) {
-                    updateConnectorStatus(statusInfo.getStationStatusInfos());
-                }
-                log.info("已同步第{}批充电桩状态，共{}个充电站", (i / batchSize) + 1, batchIds.size());
+            if (!unstored.isEmpty()) {
+                changes.addAll(transactionTemplate.execute(status -> updateUnstoredStatus(unstored, now)));
             }
+        } finally {
+            applyStatusChanges(changes);
+        }
+        log.info("已同步第{}批充电桩状态，共{}个充电站、{}个充电桩，{}个状态变化",
+                batchNo, batchIds.size(), connectorStatuses.size(), changes.size());
+    }
 
-            log.info("充电桩状态同步完成");
+    /**
+     * 已生效的状态变化按增量更新汇总信息、地图聚合和查询缓存，递增版本号并广播给其他实例
+     */
+    private void applyStatusChanges(List<ConnectorStatusChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        Set<String> changed = refreshStatusViews(changes);
+        invalidateNearbyCache(changed, false);
+        if (connectorStatusStore.isReady()) {
+            // 其他实例启动时从数据库加载状态，先写回再递增版本号，版本号快照不会领先于数据库
+            try {
+                connectorStatusStore.flush();
+            } catch (Exception e) {
+                log.warn("充电桩状态写回数据库失败，将由后台写回重试: {}", e.getMessage());
+            }
+        }
+        StationChange change = new StationChange();
+        change.setStatusChanges(changes);
+        publish(change, changes.stream()
+                .map(ConnectorStatusChange::getStationId)
+                .collect(Collectors.toSet()));
+    }
 
-        } catch (Exception e) {
-            log.error("同步充电桩状态失败", e);
-            throw new RuntimeException("同步充电桩状态失败", e);
+    /**
+     * 本地状态更新后递增版本号，连同新版本号广播给其他实例
+     */
+    private void publish(StationChange change, Set<String> touched) {
+        change.setVersions(stationVersionTracker.bump(touched));
+        change.setEpoch(stationVersionTracker.getEpoch());
+        stationChangeBroadcaster.publish(change);
+    }
+
+    /**
+     * 按状态变化更新汇总信息和地图聚合，状态存储不可用时失效详情缓存
+     *
+     * @return 汇总信息有变化的充电站ID
+     */
+    private Set<String> refreshStatusViews(List<ConnectorStatusChange> changes) {
+        Set<String> changed = stationSummaryService.applyStatusChanges(changes);
+        if (!connectorStatusStore.isReady()) {
+            // 状态存储可用时详情读取会覆盖实时状态，无需失效
+            stationDetailCache.invalidate(changes.stream()
+                    .map(ConnectorStatusChange::getStationId)
+                    .collect(Collectors.toSet()));
+        }
+        changed.forEach(stationTilePyramid::refresh);
+        return changed;
+    }
+
+    /**
+     * 其他实例同步的变化应用到本实例的内存状态，不写数据库，数据库已由发布方写入；
+     * 应用完成后才记录其中的版本号
+     */
+    private void onStationChange(StationChange change) {
+        if (!change.getStationIds().isEmpty()) {
+            applyStations(loadStations(change.getStationIds()), true);
+        }
+        applyRemoteStatusChanges(change.getStatusChanges());
+
+        Set<String> touched = new HashSet<>(change.getStationIds());
+        change.getStatusChanges().forEach(statusChange -> touched.add(statusChange.getStationId()));
+        stationVersionTracker.apply(change.getEpoch(), change.getVersions(), touched);
+        if (change.isStationSyncCompleted()) {
+            rebuildSuggestIndex();
         }
     }
 
+    /**
+     * 其他实例同步的状态变化写入本实例的状态存储并更新内存状态
+     * <p>
+     * 状态存储可用时以本地记录为变化前的状态，本地没有的充电桩等充电站信息同步后再加入
+     */
+    private void applyRemoteStatusChanges(List<ConnectorStatusChange> changes) {
+        List<ConnectorStatusChange> applied = new ArrayList<>();
+        for (ConnectorStatusChange statusChange : changes) {
+            if (!connectorStatusStore.isReady()) {
+                applied.add(statusChange);
+                continue;
+            }
+            if (connectorStatusStore.get(statusChange.getConnectorId()) == null) {
+                continue;
+            }
+            ConnectorStatusStore.ConnectorState previous = connectorStatusStore.put(statusChange.getConnectorId(),
+                    statusChange.getStationId(), statusChange.getConnectorType(), statusChange.getToStatus(),
+                    statusChange.getStatusUpdateTime());
+            if (previous != null && previous.getStatus() != statusChange.getToStatus()) {
+                applied.add(new ConnectorStatusChange(statusChange.getConnectorId(), previous.getStationId(),
+                        previous.getConnectorType(), previous.getStatus(), statusChange.getToStatus(),
+                        statusChange.getStatusUpdateTime()));
+            }
+        }
+        if (applied.isEmpty()) {
+            return;
+        }
+        invalidateNearbyCache(refreshStatusViews(applied), true);
+    }
+
     @Override
     public void fullSync() {
         log.info("开始全量数据同步...");
@@ -115,86 +327,357 @@ public class DataSyncServiceImpl implements DataSyncService {
     }
 
     /**
-     * 同步单个充电站信息
+     * 批量同步一页充电站及其充电桩
+     * <p>
+     * 充电站和充电桩的已有记录各一次查出，用于判断变化并保留平台未返回的字段，
+     * 再以 INSERT ... ON DUPLICATE KEY UPDATE 分批写入。
+     * 只写数据库，内存索引、汇总信息和状态存储由调用方在事务提交后更新。
+     *
+     * @return 本页写入的充电站、充电桩及有变化的充电站ID
      */
-    private void syncSingleStation(StationInfo stationInfo) {
-        try {
-            // 1. 同步充电站基础信息
-            ChargingStation station = convertToChargingStation(stationInfo);
-
-            // 查询是否已存在
-            ChargingStation existingStation = stationMapper.selectOne(
-                    new LambdaQueryWrapper<ChargingStation>()
-                            .eq(ChargingStation::getStationId, station.getStationId())
-            );
-
-            if (existingStation != null) {
-                // 更新现有充电站
-                station.setId(existingStation.getId());
-                station.setCreateTime(existingStation.getCreateTime());
-                stationMapper.updateById(station);
+    private SyncedPage syncStationPage(List<StationInfo> stationInfos) {
+        // 1. 转换，同一页内ID重复时以后出现的为准
+        Map<String, ChargingStation> stations = new LinkedHashMap<>();
+        Map<String, ChargingConnector> connectors = new LinkedHashMap<>();
+        for (StationInfo stationInfo : stationInfos) {
+            stations.put(stationInfo.getStationID(), convertToChargingStation(stationInfo));
+            if (CollectionUtils.isEmpty(stationInfo.getEquipmentInfos())) {
+                continue;
+            }
+            for (EquipmentInfo equipmentInfo : stationInfo.getEquipmentInfos()) {
+                if (CollectionUtils.isEmpty(equipmentInfo.getConnectorInfos())) {
+                    continue;
+                }
+                for (ConnectorInfo connectorInfo : equipmentInfo.getConnectorInfos()) {
+                    connectors.put(connectorInfo.getConnectorID(),
+                            convertToChargingConnector(stationInfo.getStationID(), equipmentInfo, connectorInfo));
+                }
+            }
+        }
+
+        // 2. 与已有记录合并，平台未返回的字段保留原值
+        Map<String, ChargingStation> existingStations = new HashMap<>();
+        for (List<String> ids : partition(new ArrayList<>(stations.keySet()))) {
+            stationMapper.selectList(new LambdaQueryWrapper<ChargingStation>()
+                            .in(ChargingStation::getStationId, ids))
+                    .forEach(station -> existingStations.put(station.getStationId(), station));
+        }
+        Map<String, ChargingConnector> existingConnectors = new HashMap<>();
+        for (List<String> ids : partition(new ArrayList<>(connectors.keySet()))) {
+            connectorMapper.selectList(new LambdaQueryWrapper<ChargingConnector>()
+                            .in(ChargingConnector::getConnectorId, ids))
+                    .forEach(connector -> existingConnectors.put(connector.getConnectorId(), connector));
+        }
+
+        Set<String> changed = new LinkedHashSet<>();
+        List<ChargingStation> mergedStations = new ArrayList<>(stations.size());
+        for (ChargingStation station : stations.values()) {
+            ChargingStation existing = existingStations.get(station.getStationId());
+            ChargingStation merged = mergeStation(existing, station);
+            if (existing == null || !sameStationInfo(existing, merged)) {
+                changed.add(merged.getStationId());
+            }
+            mergedStations.add(merged);
+        }
+        List<ChargingConnector> mergedConnectors = new ArrayList<>(connectors.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (ChargingConnector connector : connectors.values()) {
+            ChargingConnector existing = existingConnectors.get(connector.getConnectorId());
+            if (existing != null) {
+                // 已有充电桩保留当前状态，状态只由状态同步更新
+                connector.setStatus(null);
             } else {
-                // 新增充电站
-                stationMapper.insert(station);
+                connector.setStatusUpdateTime(now);
+            }
+            ChargingConnector merged = mergeConnector(existing, connector);
+            if (existing == null || !sameConnectorInfo(existing, merged)) {
+                changed.add(merged.getStationId());
             }
+            mergedConnectors.add(merged);
+        }
 
-            // 2. 同步充电桩信息
-            if (!CollectionUtils.isEmpty(stationInfo.getEquipmentInfos())) {
-                for (EquipmentInfo equipmentInfo : stationInfo.getEquipmentInfos()) {
-                    syncEquipmentConnectors(stationInfo.getStationID(), equipmentInfo);
-                }
+        // 3. 分批写入，新增的充电站回填主键
+        for (List<ChargingStation> batch : partition(mergedStations)) {
+            stationMapper.upsertBatch(batch);
+        }
+        for (List<ChargingConnector> batch : partition(mergedConnectors)) {
+            connectorMapper.upsertBatch(batch);
+        }
+        fillStationIds(mergedStations);
+
+        return new SyncedPage(mergedStations, mergedConnectors, changed);
+    }
+
+    /**
+     * 已提交的一页充电站同步到内存索引、状态存储、汇总信息和缓存，有变化的充电站递增版本号并广播
+     */
+    private void applyStationPage(SyncedPage page) {
+        applyStations(page, false);
+        if (!page.changed.isEmpty()) {
+            StationChange change = new StationChange();
+            change.setStationIds(page.changed);
+            publish(change, page.changed);
+        }
+    }
+
+    /**
+     * 其他实例同步的充电站从数据库重新加载
+     */
+    private SyncedPage loadStations(Set<String> stationIds) {
+        List<ChargingStation> stations = new ArrayList<>();
+        List<ChargingConnector> connectors = new ArrayList<>();
+        for (List<String> ids : partition(new ArrayList<>(stationIds))) {
+            stations.addAll(stationMapper.selectList(new LambdaQueryWrapper<ChargingStation>()
+                    .in(ChargingStation::getStationId, ids)));
+            connectors.addAll(connectorMapper.selectList(new LambdaQueryWrapper<ChargingConnector>()
+                    .in(ChargingConnector::getStationId, ids)));
+        }
+        return new SyncedPage(stations, connectors, stationIds);
+    }
+
+    /**
+     * 已提交的充电站及其充电桩更新到本实例的内存索引、状态存储、汇总信息和缓存
+     *
+     * @param localOnly 变化来自其他实例，Redis中的查询缓存已由发布方失效，只失效本地缓存
+     */
+    private void applyStations(SyncedPage page, boolean localOnly) {
+        for (ChargingStation station : page.stations) {
+            stationJsonFragments.refresh(station);
+            stationSearchIndex.upsert(station);
+            ChargingStation previous = stationGeoIndex.get(station.getStationId());
+            stationGeoIndex.upsert(station);
+            ChargingStation current = stationGeoIndex.get(station.getStationId());
+            if (!sameLocation(previous, current)) {
+                // 充电站进出索引或位置变化，新旧位置附近的查询缓存都要失效
+                invalidateNearbyCache(Arrays.asList(previous, current), localOnly);
+            }
+        }
+        if (connectorStatusStore.isReady()) {
+            for (ChargingConnector connector : page.connectors) {
+                // 状态存储中的状态可能比数据库新，已有的充电桩只更新所属充电站和类型
+                ConnectorStatusStore.ConnectorState live = connectorStatusStore.get(connector.getConnectorId());
+                connectorStatusStore.put(connector.getConnectorId(), connector.getStationId(),
+                        connector.getConnectorType(),
+                        live != null ? live.getStatus() : connector.getStatus(),
+                        live != null ? live.getStatusUpdateTime() : connector.getStatusUpdateTime());
             }
+        }
 
-        } catch (Exception e) {
-            log.error("同步充电站{}失败: {}", stationInfo.getStationID(), e.getMessage());
+        // 刷新汇总信息和地图聚合，有变化的充电站失效详情缓存
+        refreshStationViews(page.stations.stream()
+                .map(ChargingStation::getStationId)
+                .collect(Collectors.toList()), localOnly);
+        if (!page.changed.isEmpty()) {
+            stationDetailCache.invalidate(page.changed);
         }
     }
 
     /**
-     * 同步设备下的充电桩
+     * 新增的充电站写入后一次查出自增主键
      */
-    private void syncEquipmentConnectors(String stationId, EquipmentInfo equipmentInfo) {
-        if (CollectionUtils.isEmpty(equipmentInfo.getConnectorInfos())) {
+    private void fillStationIds(List<ChargingStation> stations) {
+        Map<String, ChargingStation> inserted = stations.stream()
+                .filter(station -> station.getId() == null)
+                .collect(Collectors.toMap(ChargingStation::getStationId, Function.identity()));
+        if (inserted.isEmpty()) {
             return;
         }
+        stationMapper.selectList(new LambdaQueryWrapper<ChargingStation>()
+                        .select(ChargingStation::getId, ChargingStation::getStationId)
+                        .in(ChargingStation::getStationId, inserted.keySet()))
+                .forEach(row -> inserted.get(row.getStationId()).setId(row.getId()));
+    }
 
-        for (ConnectorInfo connectorInfo : equipmentInfo.getConnectorInfos()) {
-            ChargingConnector connector = convertToChargingConnector(stationId, equipmentInfo, connectorInfo);
+    /**
+     * 新数据中为空的字段取已有记录的值，与 updateById 忽略空字段的行为一致，直接修改并返回incoming
+     */
+    private static ChargingStation mergeStation(ChargingStation existing, ChargingStation incoming) {
+        if (existing == null) {
+            return incoming;
+        }
+        incoming.setId(existing.getId());
+        incoming.setStationName(orElse(incoming.getStationName(), existing.getStationName()));
+        incoming.setAddress(orElse(incoming.getAddress(), existing.getAddress()));
+        incoming.setProvince(orElse(incoming.getProvince(), existing.getProvince()));
+        incoming.setCity(orElse(incoming.getCity(), existing.getCity()));
+        incoming.setDistrict(orElse(incoming.getDistrict(), existing.getDistrict()));
+        incoming.setLongitude(orElse(incoming.getLongitude(), existing.getLongitude()));
+        incoming.setLatitude(orElse(incoming.getLatitude(), existing.getLatitude()));
+        incoming.setStationTel(orElse(incoming.getStationTel(), existing.getStationTel()));
+        incoming.setServiceFee(orElse(incoming.getServiceFee(), existing.getServiceFee()));
+        incoming.setParkingFee(orElse(incoming.getParkingFee(), existing.getParkingFee()));
+        incoming.setOpeningHours(orElse(incoming.getOpeningHours(), existing.getOpeningHours()));
+        incoming.setStationStatus(orElse(incoming.getStationStatus(), existing.getStationStatus()));
+        incoming.setCreateTime(orElse(incoming.getCreateTime(), existing.getCreateTime()));
+        incoming.setUpdateTime(orElse(incoming.getUpdateTime(), existing.getUpdateTime()));
+        return incoming;
+    }
 
-            // 查询是否已存在
-            ChargingConnector existingConnector = connectorMapper.selectOne(
-                    new LambdaQueryWrapper<ChargingConnector>()
-                            .eq(ChargingConnector::getConnectorId, connector.getConnectorId())
-            );
+    /**
+     * 新数据中为空的字段取已有记录的值，直接修改并返回incoming
+     */
+    private static ChargingConnector mergeConnector(ChargingConnector existing, ChargingConnector incoming) {
+        if (existing == null) {
+            return incoming;
+        }
+        incoming.setId(existing.getId());
+        incoming.setStationId(orElse(incoming.getStationId(), existing.getStationId()));
+        incoming.setConnectorName(orElse(incoming.getConnectorName(), existing.getConnectorName()));
+        incoming.setConnectorType(orElse(incoming.getConnectorType(), existing.getConnectorType()));
+        incoming.setRatedPower(orElse(incoming.getRatedPower(), existing.getRatedPower()));
+        incoming.setCurrentPower(orElse(incoming.getCurrentPower(), existing.getCurrentPower()));
+        incoming.setElectricityFee(orElse(incoming.getElectricityFee(), existing.getElectricityFee()));
+        incoming.setServiceFee(orElse(incoming.getServiceFee(), existing.getServiceFee()));
+        incoming.setStatus(orElse(incoming.getStatus(), existing.getStatus()));
+        incoming.setStatusUpdateTime(orElse(incoming.getStatusUpdateTime(), existing.getStatusUpdateTime()));
+        incoming.setCreateTime(orElse(incoming.getCreateTime(), existing.getCreateTime()));
+        incoming.setUpdateTime(orElse(incoming.getUpdateTime(), existing.getUpdateTime()));
+        return incoming;
+    }
 
-            if (existingConnector != null) {
-                // 更新现有充电桩
-                connector.setId(existingConnector.getId());
-                connector.setCreateTime(existingConnector.getCreateTime());
-                connectorMapper.updateById(connector);
-            } else {
-                // 新增充电桩
-                connectorMapper.insert(connector);
+    private static <T> T orElse(T value, T fallback) {
+        return value != null ? value : fallback;
+    }
+
+    private static <T> List<List<T>> partition(List<T> list) {
+        List<List<T>> batches = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += UPSERT_BATCH_SIZE) {
+            batches.add(list.subList(from, Math.min(from + UPSERT_BATCH_SIZE, list.size())));
+        }
+        return batches;
+    }
+
+    /**
+     * 充电站或其充电桩变更后，刷新汇总信息和地图聚合
+     */
+    private void refreshStationViews(List<String> stationIds, boolean localOnly) {
+        Set<String> changed = stationSummaryService.refresh(stationIds);
+        stationIds.forEach(stationTilePyramid::refresh);
+        invalidateNearbyCache(changed, localOnly);
+    }
+
+    /**
+     * 汇总信息变化会影响按类型、空闲、功率、电费筛选的查询结果
+     */
+    private void invalidateNearbyCache(Set<String> changedStationIds, boolean localOnly) {
+        if (!changedStationIds.isEmpty()) {
+            invalidateNearbyCache(changedStationIds.stream()
+                    .map(stationGeoIndex::get)
+                    .collect(Collectors.toList()), localOnly);
+        }
+    }
+
+    private void invalidateNearbyCache(List<ChargingStation> stations, boolean localOnly) {
+        if (localOnly) {
+            stationNearbyCache.invalidateLocal(stations);
+        } else {
+            stationNearbyCache.invalidate(stations);
+        }
+    }
+
+    private boolean sameLocation(ChargingStation previous, ChargingStation current) {
+        if (previous == null || current == null) {
+            return previous == current;
+        }
+        return previous.getLatitude().compareTo(current.getLatitude()) == 0
+                && previous.getLongitude().compareTo(current.getLongitude()) == 0;
+    }
+
+    /**
+     * 比较同步写入的充电站字段是否一致
+     */
+    private boolean sameStationInfo(ChargingStation existing, ChargingStation station) {
+        return Objects.equals(existing.getStationName(), station.getStationName())
+                && Objects.equals(existing.getAddress(), station.getAddress())
+                && Objects.equals(existing.getProvince(), station.getProvince())
+                && Objects.equals(existing.getCity(), station.getCity())
+                && Objects.equals(existing.getDistrict(), station.getDistrict())
+                && sameDecimal(existing.getLongitude(), station.getLongitude())
+                && sameDecimal(existing.getLatitude(), station.getLatitude())
+                && Objects.equals(existing.getStationTel(), station.getStationTel())
+                && sameDecimal(existing.getServiceFee(), station.getServiceFee())
+                && Objects.equals(existing.getParkingFee(), station.getParkingFee())
+                && Objects.equals(existing.getOpeningHours(), station.getOpeningHours())
+                && Objects.equals(existing.getStationStatus(), station.getStationStatus());
+    }
+
+    /**
+     * 比较同步写入的充电桩字段是否一致
+     */
+    private boolean sameConnectorInfo(ChargingConnector existing, ChargingConnector connector) {
+        return Objects.equals(existing.getConnectorName(), connector.getConnectorName())
+                && Objects.equals(existing.getConnectorType(), connector.getConnectorType())
+                && sameDecimal(existing.getRatedPower(), connector.getRatedPower())
+                && sameDecimal(existing.getCurrentPower(), connector.getCurrentPower())
+                && Objects.equals(existing.getStatus(), connector.getStatus());
+    }
+
+    private boolean sameDecimal(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    /**
+     * 在状态存储中更新充电桩状态，状态未变化的充电桩不写入，保留原状态更新时间
+     *
+     * @param unstored 收集状态存储中没有的充电桩，由调用方直接写入数据库
+     * @return 状态发生变化的充电桩
+     */
+    private List<ConnectorStatusChange> updateStoredStatus(List<ConnectorStatusInfo> statusInfos, LocalDateTime now,
+                                                           List<ConnectorStatusInfo> unstored) {
+        List<ConnectorStatusChange> changes = new ArrayList<>();
+        for (ConnectorStatusInfo statusInfo : statusInfos) {
+            if (statusInfo.getStatus() == null) {
+                continue;
+            }
+            ConnectorStatusStore.ConnectorState previous = connectorStatusStore.isReady()
+                    ? connectorStatusStore.updateStatus(statusInfo.getConnectorID(), statusInfo.getStatus(), now)
+                    : null;
+            if (previous == null) {
+                unstored.add(statusInfo);
+            } else if (previous.getStatus() != statusInfo.getStatus()) {
+                changes.add(new ConnectorStatusChange(statusInfo.getConnectorID(), previous.getStationId(),
+                        previous.getConnectorType(), previous.getStatus(), statusInfo.getStatus(), now));
             }
         }
+        return changes;
     }
 
     /**
-     * 更新充电桩状态
+     * 状态存储中没有的充电桩直接读写数据库，一次查出当前状态，只把状态变化的充电桩分批写入
+     *
+     * @return 状态发生变化的充电桩
      */
-    private void updateConnectorStatus(List<ConnectorStatusInfo> statusInfos) {
-        if (CollectionUtils.isEmpty(statusInfos)) {
-            return;
+    private List<ConnectorStatusChange> updateUnstoredStatus(List<ConnectorStatusInfo> statusInfos, LocalDateTime now) {
+        Map<String, ChargingConnector> existing = new HashMap<>();
+        for (List<String> ids : partition(statusInfos.stream()
+                .map(ConnectorStatusInfo::getConnectorID)
+                .distinct()
+                .collect(Collectors.toList()))) {
+            connectorMapper.selectList(new LambdaQueryWrapper<ChargingConnector>()
+                            .select(ChargingConnector::getConnectorId, ChargingConnector::getStationId,
+                                    ChargingConnector::getConnectorType, ChargingConnector::getStatus)
+                            .in(ChargingConnector::getConnectorId, ids))
+                    .forEach(connector -> existing.put(connector.getConnectorId(), connector));
         }
 
+        List<ConnectorStatusChange> changes = new ArrayList<>();
+        Map<String, ChargingConnector> transitions = new LinkedHashMap<>();
         for (ConnectorStatusInfo statusInfo : statusInfos) {
-            connectorMapper.update(null,
-                    new LambdaUpdateWrapper<ChargingConnector>()
-                            .eq(ChargingConnector::getConnectorId, statusInfo.getConnectorID())
-                            .set(ChargingConnector::getStatus, statusInfo.getStatus())
-                            .set(ChargingConnector::getStatusUpdateTime, LocalDateTime.now())
-            );
+            ChargingConnector connector = existing.get(statusInfo.getConnectorID());
+            if (connector == null || Objects.equals(connector.getStatus(), statusInfo.getStatus())) {
+                continue;
+            }
+            changes.add(new ConnectorStatusChange(connector.getConnectorId(), connector.getStationId(),
+                    connector.getConnectorType(), connector.getStatus(), statusInfo.getStatus(), now));
+            // 同一轮中重复出现时以最后一次为准，后续比较基于新状态
+            connector.setStatus(statusInfo.getStatus());
+            connector.setStatusUpdateTime(now);
+            transitions.put(connector.getConnectorId(), connector);
+        }
+        for (List<ChargingConnector> batch : partition(new ArrayList<>(transitions.values()))) {
+            connectorMapper.updateStatusBatch(batch);
         }
+        return changes;
     }
 
     /**
@@ -240,4 +723,19 @@ public class DataSyncServiceImpl implements DataSyncService {
 
         return connector;
     }
+
+    /**
+     * 已写入数据库的一页充电站
+     */
+    private static final class SyncedPage {
+        private final List<ChargingStation> stations;
+        private final List<ChargingConnector> connectors;
+        private final Set<String> changed;
+
+        SyncedPage(List<ChargingStation> stations, List<ChargingConnector> connectors, Set<String> changed) {
+            this.stations = stations;
+            this.connectors = connectors;
+            this.changed = changed;
+        }
+    }
 }
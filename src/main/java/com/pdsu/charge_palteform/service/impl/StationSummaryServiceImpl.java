@@ -0,0 +1,337 @@
+package com.pdsu.charge_palteform.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.pdsu.charge_palteform.entity.ChargingConnector;
+import com.pdsu.charge_palteform.entity.ConnectorStatusChange;
+import com.pdsu.charge_palteform.entity.StationSummary;
+import com.pdsu.charge_palteform.enums.ConnectorStatusEnum;
+import com.pdsu.charge_palteform.enums.ConnectorTypeEnum;
+import com.pdsu.charge_palteform.index.ConnectorStatusStore;
+import com.pdsu.charge_palteform.mapper.ChargingConnectorMapper;
+import com.pdsu.charge_palteform.mapper.StationSummaryMapper;
+import com.pdsu.charge_palteform.service.StationSummaryService;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 充电站汇总信息，常驻内存供列表筛选和展示使用，汇总表只是持久化副本
+ * <p>
+ * 常驻每个充电桩的类型、功率、电费和状态，筛选时逐个充电桩判断，
+ * 与数据库查询中按充电桩的 EXISTS 条件一致；汇总由这些充电桩在内存中计算。
+ * 充电桩状态变化时按增量修改计数，充电桩基础信息变化时重新汇总该充电站。
+ * 状态存储可用时充电桩状态以状态存储为准：数据库由状态存储异步写回，可能滞后，
+ * 重新汇总时若直接取数据库状态，会用旧计数覆盖已按增量更新的汇总。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StationSummaryServiceImpl implements StationSummaryService {
+
+    /**
+     * 汇总表每批写入条数
+     */
+    private static final int WRITE_BATCH_SIZE = 500;
+
+    private final ChargingConnectorMapper connectorMapper;
+    private final StationSummaryMapper summaryMapper;
+    private final ConnectorStatusStore connectorStatusStore;
+
+    private final Map<String, StationSummary> summaries = new ConcurrentHashMap<>();
+
+    /**
+     * 充电站ID -> 充电桩筛选字段，列表不可变，变化时整体替换
+     */
+    private final Map<String, List<ConnectorFacet>> connectorFacets = new ConcurrentHashMap<>();
+
+    private volatile boolean ready = false;
+
+    @Override
+    public synchronized void reload() {
+        Map<String, List<ConnectorFacet>> facets = loadConnectorFacets(null);
+        Map<String, StationSummary> computed = new HashMap<>(facets.size() * 2);
+        facets.forEach((stationId, list) -> computed.put(stationId, summarize(stationId, list)));
+
+        summaries.clear();
+        summaries.putAll(computed);
+        connectorFacets.clear();
+        connectorFacets.putAll(facets);
+        ready = true;
+        log.info("充电站汇总信息加载完成，共{}个充电站", computed.size());
+
+        // 汇总表只写入与内存汇总不一致的部分
+        Map<String, StationSummary> persisted = new HashMap<>();
+        try {
+            summaryMapper.selectList(null).forEach(summary -> persisted.put(summary.getStationId(), summary));
+        } catch (Exception e) {
+            log.error("读取充电站汇总表失败: {}", e.getMessage());
+        }
+        persist(computed.values().stream()
+                .filter(summary -> !summary.equals(persisted.get(summary.getStationId())))
+                .collect(Collectors.toList()));
+        delete(persisted.keySet().stream()
+                .filter(stationId -> !computed.containsKey(stationId))
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public synchronized Set<String> refresh(Collection<String> stationIds) {
+        if (CollectionUtils.isEmpty(stationIds)) {
+            return Collections.emptySet();
+        }
+        Map<String, List<ConnectorFacet>> refreshedFacets = loadConnectorFacets(stationIds);
+        Set<String> changed = new HashSet<>();
+        List<StationSummary> updated = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        for (String stationId : stationIds) {
+            List<ConnectorFacet> facets = refreshedFacets.get(stationId);
+            List<ConnectorFacet> previousFacets = facets != null
+                    ? connectorFacets.put(stationId, facets) : connectorFacets.remove(stationId);
+            if (!Objects.equals(previousFacets, facets)) {
+                // 汇总未变时充电桩的功率、电费组合也可能变化，同样影响筛选结果
+                changed.add(stationId);
+            }
+            // 没有充电桩的充电站没有汇总
+            StationSummary summary = facets != null ? summarize(stationId, facets) : null;
+            StationSummary previous = summary != null
+                    ? summaries.put(stationId, summary) : summaries.remove(stationId);
+            if (!Objects.equals(previous, summary)) {
+                changed.add(stationId);
+                if (summary != null) {
+                    updated.add(summary);
+                } else {
+                    removed.add(stationId);
+                }
+            }
+        }
+        persist(updated);
+        delete(removed);
+        return changed;
+    }
+
+    @Override
+    public synchronized Set<String> applyStatusChanges(Collection<ConnectorStatusChange> changes) {
+        if (CollectionUtils.isEmpty(changes)) {
+            return Collections.emptySet();
+        }
+        Map<String, StationSummary> updated = new LinkedHashMap<>();
+        Set<String> missing = new HashSet<>();
+        for (ConnectorStatusChange change : changes) {
+            if (Objects.equals(change.getFromStatus(), change.getToStatus())) {
+                continue;
+            }
+            applyFacetStatus(change);
+            StationSummary summary = updated.get(change.getStationId());
+            if (summary == null) {
+                StationSummary current = summaries.get(change.getStationId());
+                if (current == null) {
+                    missing.add(change.getStationId());
+                    continue;
+                }
+                // 复制后再修改，读取方始终看到完整的汇总
+                summary = new StationSummary();
+                BeanUtils.copyProperties(current, summary);
+                updated.put(change.getStationId(), summary);
+            }
+            applyStatusChange(summary, change);
+        }
+
+        updated.values().forEach(summary -> summaries.put(summary.getStationId(), summary));
+        persist(updated.values());
+
+        Set<String> changed = new HashSet<>(updated.keySet());
+        // 内存中没有汇总的充电站无法增量计算，重新汇总
+        changed.addAll(refresh(missing));
+        return changed;
+    }
+
+    @Override
+    public StationSummary getSummary(String stationId) {
+        return summaries.get(stationId);
+    }
+
+    @Override
+    public boolean hasMatchingConnector(String stationId, Integer connectorType, boolean onlyAvailable,
+                                        BigDecimal minPower, BigDecimal maxElectricityFee) {
+        List<ConnectorFacet> facets = connectorFacets.get(stationId);
+        if (facets == null) {
+            return false;
+        }
+        for (ConnectorFacet facet : facets) {
+            if ((connectorType == null || connectorType.equals(facet.connectorType))
+                    && (!onlyAvailable || ConnectorStatusEnum.IDLE.getCode().equals(facet.status))
+                    && (minPower == null || (facet.ratedPower != null && facet.ratedPower.compareTo(minPower) >= 0))
+                    && (maxElectricityFee == null || (facet.electricityFee != null
+                            && facet.electricityFee.compareTo(maxElectricityFee) <= 0))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 加载充电桩筛选字段，stationIds为null时加载全部，状态存储可用时状态取自状态存储
+     */
+    private Map<String, List<ConnectorFacet>> loadConnectorFacets(Collection<String> stationIds) {
+        Map<String, List<ConnectorFacet>> result = new HashMap<>();
+        connectorMapper.selectList(new LambdaQueryWrapper<ChargingConnector>()
+                        .select(ChargingConnector::getConnectorId, ChargingConnector::getStationId,
+                                ChargingConnector::getConnectorType, ChargingConnector::getRatedPower,
+                                ChargingConnector::getElectricityFee, ChargingConnector::getStatus)
+                        .in(stationIds != null, ChargingConnector::getStationId, stationIds)
+                        .orderByAsc(ChargingConnector::getConnectorId))
+                .forEach(connector -> result.computeIfAbsent(connector.getStationId(), k -> new ArrayList<>())
+                        .add(new ConnectorFacet(connector.getConnectorId(), connector.getConnectorType(),
+                                connector.getRatedPower(), connector.getElectricityFee(), liveStatus(connector))));
+        result.replaceAll((stationId, facets) -> List.copyOf(facets));
+        return result;
+    }
+
+    private Integer liveStatus(ChargingConnector connector) {
+        if (connectorStatusStore.isReady()) {
+            ConnectorStatusStore.ConnectorState state = connectorStatusStore.get(connector.getConnectorId());
+            if (state != null) {
+                return state.getStatus();
+            }
+        }
+        return connector.getStatus();
+    }
+
+    /**
+     * 按充电桩汇总，与 ChargingConnectorMapper.summarizeByStation 的统计口径一致
+     */
+    private static StationSummary summarize(String stationId, List<ConnectorFacet> facets) {
+        StationSummary summary = new StationSummary();
+        summary.setStationId(stationId);
+        summary.setTotalConnectors(facets.size());
+        summary.setIdleConnectors(0);
+        summary.setChargingConnectors(0);
+        summary.setFaultConnectors(0);
+        summary.setDcConnectors(0);
+        summary.setAcConnectors(0);
+        summary.setIdleDcConnectors(0);
+        summary.setIdleAcConnectors(0);
+        for (ConnectorFacet facet : facets) {
+            boolean dc = ConnectorTypeEnum.DC.getCode().equals(facet.connectorType);
+            boolean ac = ConnectorTypeEnum.AC.getCode().equals(facet.connectorType);
+            if (dc) {
+                summary.setDcConnectors(summary.getDcConnectors() + 1);
+            } else if (ac) {
+                summary.setAcConnectors(summary.getAcConnectors() + 1);
+            }
+            adjust(summary, facet.status, dc, ac, 1);
+            summary.setMinElectricityFee(min(summary.getMinElectricityFee(), facet.electricityFee));
+            summary.setMaxElectricityFee(max(summary.getMaxElectricityFee(), facet.electricityFee));
+            summary.setMaxRatedPower(max(summary.getMaxRatedPower(), facet.ratedPower));
+        }
+        updateCapabilities(summary);
+        return summary;
+    }
+
+    private static BigDecimal min(BigDecimal current, BigDecimal value) {
+        return current == null || (value != null && value.compareTo(current) < 0) ? value : current;
+    }
+
+    private static BigDecimal max(BigDecimal current, BigDecimal value) {
+        return current == null || (value != null && value.compareTo(current) > 0) ? value : current;
+    }
+
+    /**
+     * 复制后替换变化的充电桩，读取方始终看到完整的列表
+     */
+    private void applyFacetStatus(ConnectorStatusChange change) {
+        connectorFacets.computeIfPresent(change.getStationId(), (stationId, facets) -> {
+            List<ConnectorFacet> updated = new ArrayList<>(facets);
+            updated.replaceAll(facet -> facet.connectorId.equals(change.getConnectorId())
+                    ? new ConnectorFacet(facet.connectorId, facet.connectorType, facet.ratedPower,
+                            facet.electricityFee, change.getToStatus())
+                    : facet);
+            return List.copyOf(updated);
+        });
+    }
+
+    private void applyStatusChange(StationSummary summary, ConnectorStatusChange change) {
+        boolean dc = ConnectorTypeEnum.DC.getCode().equals(change.getConnectorType());
+        boolean ac = ConnectorTypeEnum.AC.getCode().equals(change.getConnectorType());
+        adjust(summary, change.getFromStatus(), dc, ac, -1);
+        adjust(summary, change.getToStatus(), dc, ac, 1);
+        updateCapabilities(summary);
+    }
+
+    private static void updateCapabilities(StationSummary summary) {
+        summary.setCapabilities((summary.getDcConnectors() > 0 ? StationSummary.DC : 0)
+                | (summary.getAcConnectors() > 0 ? StationSummary.AC : 0)
+                | (summary.getIdleDcConnectors() > 0 ? StationSummary.IDLE_DC : 0)
+                | (summary.getIdleAcConnectors() > 0 ? StationSummary.IDLE_AC : 0));
+    }
+
+    private static void adjust(StationSummary summary, Integer status, boolean dc, boolean ac, int delta) {
+        if (ConnectorStatusEnum.IDLE.getCode().equals(status)) {
+            summary.setIdleConnectors(summary.getIdleConnectors() + delta);
+            if (dc) {
+                summary.setIdleDcConnectors(summary.getIdleDcConnectors() + delta);
+            } else if (ac) {
+                summary.setIdleAcConnectors(summary.getIdleAcConnectors() + delta);
+            }
+        } else if (ConnectorStatusEnum.OCCUPIED_CHARGING.getCode().equals(status)) {
+            summary.setChargingConnectors(summary.getChargingConnectors() + delta);
+        } else if (ConnectorStatusEnum.FAULT.getCode().equals(status)) {
+            summary.setFaultConnectors(summary.getFaultConnectors() + delta);
+        }
+    }
+
+    private void delete(List<String> stationIds) {
+        if (stationIds.isEmpty()) {
+            return;
+        }
+        try {
+            summaryMapper.deleteBatchIds(stationIds);
+        } catch (Exception e) {
+            log.error("删除充电站汇总失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 写入汇总表，汇总表只是内存汇总的持久化副本，写入失败不影响查询
+     */
+    private void persist(Collection<StationSummary> list) {
+        if (list.isEmpty()) {
+            return;
+        }
+        List<StationSummary> pending = new ArrayList<>(list);
+        try {
+            for (int i = 0; i < pending.size(); i += WRITE_BATCH_SIZE) {
+                summaryMapper.upsertBatch(pending.subList(i, Math.min(i + WRITE_BATCH_SIZE, pending.size())));
+            }
+        } catch (Exception e) {
+            log.error("写入充电站汇总失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 充电桩筛选字段
+     */
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static final class ConnectorFacet {
+        private final String connectorId;
+        private final Integer connectorType;
+        private final BigDecimal ratedPower;
+        private final BigDecimal electricityFee;
+        private final Integer status;
+    }
+}
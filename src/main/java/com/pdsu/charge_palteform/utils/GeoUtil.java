@@ -0,0 +1,85 @@
+package com.pdsu.charge_palteform.utils;
+
+import java.util.Locale;
+
+/**
+ * 地理坐标计算工具
+ */
+public class GeoUtil {
+
+    /**
+     * 地球半径（公里）
+     */
+    public static final double EARTH_RADIUS_KM = 6371;
+
+    /**
+     * 每纬度对应的距离（公里）
+     */
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private GeoUtil() {
+    }
+
+    /**
+     * 计算两点间球面距离（公里，haversine公式）
+     */
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double radLat1 = Math.toRadians(lat1);
+        double radLat2 = Math.toRadians(lat2);
+        double sinDeltaLat = Math.sin((radLat2 - radLat1) / 2);
+        double sinDeltaLng = Math.sin(Math.toRadians(lng2 - lng1) / 2);
+
+        double a = sinDeltaLat * sinDeltaLat +
+                Math.cos(radLat1) * Math.cos(radLat2) * sinDeltaLng * sinDeltaLng;
+
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(Math.min(1, a)));
+    }
+
+    /**
+     * 批量计算一个点到多个点的球面距离（公里），结果写入out，不产生额外对象
+     *
+     * @param lats   目标点纬度
+     * @param lngs   目标点经度
+     * @param out    距离输出数组，长度不小于length
+     * @param length 参与计算的点数
+     */
+    public static void distancesKm(double lat, double lng, double[] lats, double[] lngs, double[] out, int length) {
+        double radLat = Math.toRadians(lat);
+        double cosLat = Math.cos(radLat);
+        for (int i = 0; i < length; i++) {
+            double radLat2 = Math.toRadians(lats[i]);
+            double sinDeltaLat = Math.sin((radLat2 - radLat) / 2);
+            double sinDeltaLng = Math.sin(Math.toRadians(lngs[i] - lng) / 2);
+            double a = sinDeltaLat * sinDeltaLat + cosLat * Math.cos(radLat2) * sinDeltaLng * sinDeltaLng;
+            out[i] = 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(Math.min(1, a)));
+        }
+    }
+
+    /**
+     * 计算以某点为中心、指定半径的外接矩形
+     *
+     * @return {minLat, maxLat, minLng, maxLng}
+     */
+    public static double[] boundingBox(double lat, double lng, double radiusKm) {
+        double deltaLat = radiusKm / KM_PER_DEGREE;
+        double minLat = Math.max(-90, lat - deltaLat);
+        double maxLat = Math.min(90, lat + deltaLat);
+
+        // 高纬度地区经度跨度急剧增大，接近极点时直接取全部经度
+        double cosLat = Math.cos(Math.toRadians(Math.max(Math.abs(minLat), Math.abs(maxLat))));
+        if (cosLat < 1e-6) {
+            return new double[]{minLat, maxLat, -180, 180};
+        }
+        double deltaLng = Math.min(180, radiusKm / (KM_PER_DEGREE * cosLat));
+        return new double[]{minLat, maxLat, lng - deltaLng, lng + deltaLng};
+    }
+
+    /**
+     * 外接矩形转换为WKT多边形（经度在前）
+     */
+    public static String toWktPolygon(double[] box) {
+        double minLat = box[0], maxLat = box[1], minLng = box[2], maxLng = box[3];
+        return String.format(Locale.ROOT, "POLYGON((%f %f, %f %f, %f %f, %f %f, %f %f))",
+                minLng, minLat, maxLng, minLat, maxLng, maxLat, minLng, maxLat, minLng, minLat);
+    }
+}
@@ -0,0 +1,63 @@
+package com.pdsu.charge_palteform.utils;
+
+import net.sourceforge.pinyin4j.PinyinHelper;
+import net.sourceforge.pinyin4j.format.HanyuPinyinCaseType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinOutputFormat;
+import net.sourceforge.pinyin4j.format.HanyuPinyinToneType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinVCharType;
+import net.sourceforge.pinyin4j.format.exception.BadHanyuPinyinOutputFormatCombination;
+
+/**
+ * 汉字转拼音工具，多音字取第一个读音
+ */
+public class PinyinUtil {
+
+    private static final HanyuPinyinOutputFormat FORMAT = new HanyuPinyinOutputFormat();
+
+    static {
+        FORMAT.setCaseType(HanyuPinyinCaseType.LOWERCASE);
+        FORMAT.setToneType(HanyuPinyinToneType.WITHOUT_TONE);
+        FORMAT.setVCharType(HanyuPinyinVCharType.WITH_V);
+    }
+
+    private PinyinUtil() {
+    }
+
+    /**
+     * 转换为全拼和拼音首字母，非汉字字符原样保留（字母转小写），空白字符忽略
+     *
+     * @return [全拼, 首字母]
+     */
+    public static String[] toPinyin(String text) {
+        StringBuilder full = new StringBuilder();
+        StringBuilder initials = new StringBuilder();
+        if (text == null) {
+            return new String[]{"", ""};
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            String pinyin = firstReading(c);
+            if (pinyin != null) {
+                full.append(pinyin);
+                initials.append(pinyin.charAt(0));
+            } else {
+                char lower = Character.toLowerCase(c);
+                full.append(lower);
+                initials.append(lower);
+            }
+        }
+        return new String[]{full.toString(), initials.toString()};
+    }
+
+    private static String firstReading(char c) {
+        try {
+            String[] readings = PinyinHelper.toHanyuPinyinStringArray(c, FORMAT);
+            return readings == null || readings.length == 0 ? null : readings[0];
+        } catch (BadHanyuPinyinOutputFormatCombination e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.pdsu.charge_palteform.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StationVersionTrackerTest {
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final HashOperations<String, Object, Object> hash = mock(HashOperations.class);
+    private final StationVersionTracker tracker = new StationVersionTracker(redisTemplate);
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hash);
+        when(hash.entries(anyString())).thenReturn(Map.of("#epoch", "100", "S1", "3"));
+        when(hash.get(anyString(), eq("#epoch"))).thenReturn("100");
+    }
+
+    @Test
+    void noVersionUntilInitialized() {
+        Map<String, String> snapshot = tracker.readSnapshot();
+        assertNull(tracker.getVersion("S1"));
+
+        tracker.init(snapshot);
+        assertEquals("100.3", tracker.getVersion("S1"));
+        assertEquals("100.0", tracker.getVersion("S2"));
+    }
+
+    @Test
+    void remoteVersionIsRecordedOnlyWhenApplied() {
+        tracker.init(tracker.readSnapshot());
+
+        // Redis中已递增，但本实例尚未收到变化
+        when(hash.entries(anyString())).thenReturn(Map.of("#epoch", "100", "S1", "4"));
+        assertEquals("100.3", tracker.getVersion("S1"));
+
+        tracker.apply("100", Map.of("S1", 4L), Set.of("S1", "S2"));
+        assertEquals("100.4", tracker.getVersion("S1"));
+        // 变化涉及但没有版本号的充电站不返回版本号
+        assertNull(tracker.getVersion("S2"));
+
+        // 乱序到达的旧版本号不回退
+        tracker.apply("100", Map.of("S1", 2L, "S2", 1L), Set.of("S1", "S2"));
+        assertEquals("100.4", tracker.getVersion("S1"));
+        assertEquals("100.1", tracker.getVersion("S2"));
+    }
+
+    @Test
+    void failedBumpWithholdsVersion() {
+        tracker.init(tracker.readSnapshot());
+        when(hash.increment(anyString(), eq("S1"), eq(1L))).thenThrow(new RuntimeException("redis down"));
+
+        assertEquals(Map.of(), tracker.bump(List.of("S1")));
+        assertNull(tracker.getVersion("S1"));
+
+        reset(hash);
+        when(hash.increment(anyString(), eq("S1"), eq(1L))).thenReturn(5L);
+        when(hash.get(anyString(), eq("#epoch"))).thenReturn("100");
+        assertEquals(Map.of("S1", 5L), tracker.bump(List.of("S1")));
+        assertEquals("100.5", tracker.getVersion("S1"));
+    }
+
+    @Test
+    void newEpochDropsOldCounters() {
+        tracker.init(tracker.readSnapshot());
+
+        tracker.apply("200", Map.of("S2", 1L), Set.of("S2"));
+
+        assertEquals("200.0", tracker.getVersion("S1"));
+        assertEquals("200.1", tracker.getVersion("S2"));
+    }
+}
@@ -0,0 +1,81 @@
+package com.pdsu.charge_palteform.common;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pdsu.charge_palteform.cache.StationJsonFragments;
+import com.pdsu.charge_palteform.config.StationCacheConfig;
+import com.pdsu.charge_palteform.entity.ChargingStation;
+import com.pdsu.charge_palteform.entity.dto.StationDetailResponse;
+import com.pdsu.charge_palteform.entity.dto.StationListResponse;
+import com.pdsu.charge_palteform.enums.StationStatusEnum;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StationStaticFieldsSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final StationJsonFragments fragments = new StationJsonFragments(new StationCacheConfig());
+    private final ChargingStation station = station();
+
+    @Test
+    void listFragmentMatchesFieldByFieldOutput() throws Exception {
+        StationListResponse spliced = new StationListResponse();
+        spliced.setStationId(station.getStationId());
+        spliced.setStaticFragment(fragments.get(station));
+
+        String raw = objectMapper.writeValueAsString(spliced);
+        assertEquals(objectMapper.writeValueAsString(listFields()), raw);
+        assertEquals("2元/小时", objectMapper.readTree(raw).get("parkingFee").asText());
+        // TokenBuffer不支持原样写入，解析片段后复制，结果与逐个字段输出一致
+        JsonNode buffered = objectMapper.valueToTree(spliced);
+        assertEquals(objectMapper.<JsonNode>valueToTree(listFields()), buffered);
+        assertTrue(buffered.get("longitude").isBigDecimal());
+    }
+
+    @Test
+    void detailFragmentCarriesParkingFeeOnce() throws Exception {
+        StationDetailResponse detail = new StationDetailResponse();
+        detail.setStationId(station.getStationId());
+        detail.setParkingFee(station.getParkingFee());
+        detail.setStaticFragment(fragments.get(station));
+
+        String json = objectMapper.writeValueAsString(detail);
+
+        assertEquals(json.indexOf("\"parkingFee\""), json.lastIndexOf("\"parkingFee\""));
+        assertEquals("2元/小时", objectMapper.readTree(json).get("parkingFee").asText());
+    }
+
+    private StationListResponse listFields() {
+        StationListResponse response = new StationListResponse();
+        response.setStationId(station.getStationId());
+        response.setStationName(station.getStationName());
+        response.setAddress(station.getAddress());
+        response.setLongitude(station.getLongitude());
+        response.setLatitude(station.getLatitude());
+        response.setStationTel(station.getStationTel());
+        response.setServiceFee(station.getServiceFee());
+        response.setParkingFee(station.getParkingFee());
+        response.setOpeningHours(station.getOpeningHours());
+        response.setStationStatus(station.getStationStatus());
+        response.setStatusText(StationStatusEnum.getDesc(station.getStationStatus()));
+        return response;
+    }
+
+    private static ChargingStation station() {
+        ChargingStation station = new ChargingStation();
+        station.setStationId("S1");
+        station.setStationName("平顶山学院\"东门\"充电站");
+        station.setAddress("新华区\\未来路");
+        station.setLongitude(new BigDecimal("113.123400"));
+        station.setLatitude(new BigDecimal("33.7654"));
+        station.setServiceFee(new BigDecimal("0.80"));
+        station.setParkingFee("2元/小时");
+        station.setOpeningHours("00:00-24:00");
+        station.setStationStatus(StationStatusEnum.OPERATING.getCode());
+        return station;
+    }
+}
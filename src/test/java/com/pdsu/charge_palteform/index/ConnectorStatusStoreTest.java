@@ -0,0 +1,202 @@
+package com.pdsu.charge_palteform.index;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.pdsu.charge_palteform.config.ConnectorStatusStoreConfig;
+import com.pdsu.charge_palteform.entity.ChargingConnector;
+import com.pdsu.charge_palteform.mapper.ChargingConnectorMapper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class ConnectorStatusStoreTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 5, 1, 8, 0);
+
+    @TempDir
+    Path tempDir;
+
+    private final ChargingConnectorMapper connectorMapper = mock(ChargingConnectorMapper.class);
+    private final List<ConnectorStatusStore> opened = new ArrayList<>();
+    private ConnectorStatusStoreConfig config;
+
+    @BeforeAll
+    static void initTableInfo() {
+        // 不启动Spring时手动注册实体元数据，LambdaQueryWrapper.select需要
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), ChargingConnector.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        config = new ConnectorStatusStoreConfig();
+        config.setPath(tempDir.resolve("connector-status.dat").toString());
+        config.setCapacity(100);
+        // 测试中手动写回
+        config.setFlushInterval(3_600_000);
+        when(connectorMapper.selectList(any())).thenReturn(List.of(
+                connector("C1", "S1", 1, T0),
+                connector("C2", "S1", 1, T0),
+                connector("C3", "S2", 2, T0)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(ConnectorStatusStore::close);
+    }
+
+    @Test
+    void unchangedStatusIsNotWrittenBack() throws Exception {
+        ConnectorStatusStore store = open();
+
+        ConnectorStatusStore.ConnectorState previous = store.updateStatus("C1", 1, T0.plusMinutes(5));
+        store.flush();
+
+        assertEquals(1, previous.getStatus());
+        assertEquals(T0, store.get("C1").getStatusUpdateTime());
+        verify(connectorMapper, never()).updateStatusBatch(anyCollection());
+    }
+
+    @Test
+    void changedStatusIsWrittenBackOnce() throws Exception {
+        ConnectorStatusStore store = open();
+        LocalDateTime changedAt = T0.plusMinutes(5);
+
+        store.updateStatus("C1", 3, changedAt);
+        store.updateStatus("C2", 1, changedAt);
+        store.updateStatus("C3", 1, changedAt);
+        store.flush();
+        store.flush();
+
+        List<ChargingConnector> written = captureWrites(1).get(0);
+        assertEquals(List.of("C1", "C3"), written.stream().map(ChargingConnector::getConnectorId).sorted().toList());
+        ChargingConnector c1 = written.stream().filter(c -> c.getConnectorId().equals("C1")).findFirst().orElseThrow();
+        assertEquals(3, c1.getStatus());
+        assertEquals(changedAt, c1.getStatusUpdateTime());
+        assertEquals("S1", store.get("C1").getStationId());
+    }
+
+    @Test
+    void failedWriteIsRetriedOnNextFlush() throws Exception {
+        ConnectorStatusStore store = open();
+        store.updateStatus("C1", 3, T0.plusMinutes(5));
+        doThrow(new RuntimeException("db down")).doReturn(1).when(connectorMapper).updateStatusBatch(anyCollection());
+
+        assertThrows(RuntimeException.class, store::flush);
+        store.flush();
+        store.flush();
+
+        verify(connectorMapper, times(2)).updateStatusBatch(anyCollection());
+    }
+
+    @Test
+    void dirtyFlagSurvivesRestartWithoutFlush() throws Exception {
+        ConnectorStatusStore crashed = open();
+        crashed.updateStatus("C1", 3, T0.plusMinutes(5));
+
+        // 未写回即重新打开同一文件，数据库中仍是旧状态
+        ConnectorStatusStore restarted = open();
+        assertEquals(3, restarted.get("C1").getStatus());
+        assertEquals(1, restarted.get("C2").getStatus());
+        restarted.flush();
+
+        List<ChargingConnector> written = captureWrites(1).get(0);
+        assertEquals(1, written.size());
+        assertEquals("C1", written.get(0).getConnectorId());
+        assertEquals(3, written.get(0).getStatus());
+    }
+
+    @Test
+    void dirtyRecordOlderThanDatabaseIsDiscardedOnRestart() throws Exception {
+        ConnectorStatusStore crashed = open();
+        crashed.updateStatus("C1", 3, T0.plusMinutes(5));
+        crashed.updateStatus("C2", 3, T0.plusMinutes(5));
+
+        // 停机期间其他实例同步了C1的更新状态
+        when(connectorMapper.selectList(any())).thenReturn(List.of(
+                connector("C1", "S1", 2, T0.plusMinutes(10)),
+                connector("C2", "S1", 1, T0),
+                connector("C3", "S2", 2, T0)));
+        ConnectorStatusStore restarted = open();
+        assertEquals(2, restarted.get("C1").getStatus());
+        assertEquals(3, restarted.get("C2").getStatus());
+        restarted.flush();
+
+        List<ChargingConnector> written = captureWrites(1).get(0);
+        assertEquals(List.of("C2"), written.stream().map(ChargingConnector::getConnectorId).toList());
+    }
+
+    @Test
+    void restartReconcilesCleanRecordsWithDatabase() throws Exception {
+        ConnectorStatusStore first = open();
+        first.close();
+        opened.remove(first);
+
+        // 停机期间数据库中的变化：C2换了充电站和状态，新增C4
+        when(connectorMapper.selectList(any())).thenReturn(List.of(
+                connector("C1", "S1", 1, T0),
+                connector("C2", "S9", 4, T0.plusHours(1)),
+                connector("C3", "S2", 2, T0),
+                connector("C4", "S9", 1, T0)));
+        ConnectorStatusStore restarted = open();
+
+        assertEquals("S9", restarted.get("C2").getStationId());
+        assertEquals(4, restarted.get("C2").getStatus());
+        assertNotNull(restarted.get("C4"));
+        restarted.flush();
+        verify(connectorMapper, never()).updateStatusBatch(anyCollection());
+    }
+
+    @Test
+    void putMovesStationAndKeepsUpdateTimeWhenStatusUnchanged() throws Exception {
+        ConnectorStatusStore store = open();
+
+        store.put("C1", "S7", 1, 1, T0.plusMinutes(5));
+
+        ConnectorStatusStore.ConnectorState state = store.get("C1");
+        assertEquals("S7", state.getStationId());
+        assertEquals(T0, state.getStatusUpdateTime());
+        assertNull(store.put("C9", "S7", 1, 2, T0));
+        assertEquals(2, store.get("C9").getStatus());
+    }
+
+    private ConnectorStatusStore open() throws Exception {
+        ConnectorStatusStore store = new ConnectorStatusStore(config, connectorMapper);
+        store.open();
+        opened.add(store);
+        return store;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<ChargingConnector>> captureWrites(int times) {
+        ArgumentCaptor<Collection<ChargingConnector>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(connectorMapper, times(times)).updateStatusBatch(captor.capture());
+        return captor.getAllValues().stream().map(c -> (List<ChargingConnector>) new ArrayList<>(c)).toList();
+    }
+
+    private static ChargingConnector connector(String connectorId, String stationId, int status,
+                                               LocalDateTime statusUpdateTime) {
+        ChargingConnector connector = new ChargingConnector();
+        connector.setConnectorId(connectorId);
+        connector.setStationId(stationId);
+        connector.setConnectorType(4);
+        connector.setStatus(status);
+        connector.setStatusUpdateTime(statusUpdateTime.truncatedTo(ChronoUnit.MILLIS));
+        return connector;
+    }
+}
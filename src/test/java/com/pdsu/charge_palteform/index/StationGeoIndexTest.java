@@ -0,0 +1,118 @@
+package com.pdsu.charge_palteform.index;
+
+import com.pdsu.charge_palteform.entity.ChargingStation;
+import com.pdsu.charge_palteform.enums.StationStatusEnum;
+import com.pdsu.charge_palteform.mapper.ChargingStationMapper;
+import com.pdsu.charge_palteform.utils.GeoUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StationGeoIndexTest {
+
+    private final ChargingStationMapper stationMapper = mock(ChargingStationMapper.class);
+    private final StationGeoIndex index = new StationGeoIndex(stationMapper);
+    private final List<ChargingStation> stations = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(2024);
+        // 市区密集分布
+        for (int i = 0; i < 1500; i++) {
+            stations.add(station("C" + i, 33.70 + random.nextDouble() * 0.3, 113.10 + random.nextDouble() * 0.3));
+        }
+        // 周边稀疏分布，中间有多圈空网格
+        for (int i = 0; i < 100; i++) {
+            stations.add(station("R" + i, 31.0 + random.nextDouble() * 5, 111.0 + random.nextDouble() * 5));
+        }
+        // 同一坐标的并列距离
+        for (int i = 0; i < 5; i++) {
+            stations.add(station("T" + i, 33.85, 113.25));
+        }
+        when(stationMapper.selectList(any())).thenReturn(stations);
+        index.rebuild();
+    }
+
+    @Test
+    void nearestMatchesBruteForceSort() {
+        double[][] points = {
+                {33.85, 113.25},   // 并列点上
+                {33.75, 113.15},   // 密集区内
+                {33.80, 113.20},   // 网格边界上
+                {34.60, 114.80},   // 密集区外，需要扩展多圈
+                {30.50, 110.50},   // 所有充电站之外
+        };
+        for (double[] point : points) {
+            for (int k : new int[]{1, 10, 200}) {
+                assertEquals(bruteForce(point[0], point[1], k), take(index.nearest(point[0], point[1]), k),
+                        "point=" + Arrays.toString(point) + ", k=" + k);
+            }
+        }
+    }
+
+    @Test
+    void nearestReturnsEveryStationOnceInDistanceOrder() {
+        Iterator<StationGeoIndex.Hit> iterator = index.nearest(33.8, 113.2);
+        List<String> ids = new ArrayList<>();
+        double last = -1;
+        while (iterator.hasNext()) {
+            StationGeoIndex.Hit hit = iterator.next();
+            assertFalse(hit.getDistance() < last, "距离未递增: " + hit.getStation().getStationId());
+            last = hit.getDistance();
+            ids.add(hit.getStation().getStationId());
+        }
+        assertEquals(stations.size(), ids.size());
+        assertEquals(stations.size(), new HashSet<>(ids).size());
+    }
+
+    @Test
+    void nearestSeesUpsertAndRemove() {
+        index.remove("T0");
+        index.upsert(station("NEW", 33.85, 113.25));
+
+        List<String> ids = take(index.nearest(33.85, 113.25), 5);
+        assertEquals(List.of("NEW", "T1", "T2", "T3", "T4"), ids);
+    }
+
+    private List<String> bruteForce(double latitude, double longitude, int k) {
+        Map<String, Double> distances = new HashMap<>();
+        double[] out = new double[1];
+        for (ChargingStation station : stations) {
+            // 与索引使用同一距离函数，保证并列判断一致
+            GeoUtil.distancesKm(latitude, longitude, new double[]{station.getLatitude().doubleValue()},
+                    new double[]{station.getLongitude().doubleValue()}, out, 1);
+            distances.put(station.getStationId(), out[0]);
+        }
+        return distances.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                .limit(k)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> take(Iterator<StationGeoIndex.Hit> iterator, int k) {
+        List<String> ids = new ArrayList<>(k);
+        while (ids.size() < k && iterator.hasNext()) {
+            ids.add(iterator.next().getStation().getStationId());
+        }
+        return ids;
+    }
+
+    private static ChargingStation station(String stationId, double latitude, double longitude) {
+        ChargingStation station = new ChargingStation();
+        station.setStationId(stationId);
+        station.setLatitude(BigDecimal.valueOf(latitude));
+        station.setLongitude(BigDecimal.valueOf(longitude));
+        station.setStationStatus(StationStatusEnum.OPERATING.getCode());
+        return station;
+    }
+}
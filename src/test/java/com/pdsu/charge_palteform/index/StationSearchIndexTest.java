@@ -0,0 +1,144 @@
+package com.pdsu.charge_palteform.index;
+
+import com.pdsu.charge_palteform.entity.ChargingStation;
+import com.pdsu.charge_palteform.mapper.ChargingStationMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StationSearchIndexTest {
+
+    private static final int OPERATING = 2;
+    private static final int CLOSED = 3;
+
+    private final ChargingStationMapper stationMapper = mock(ChargingStationMapper.class);
+    private final StationSearchIndex index = new StationSearchIndex(stationMapper);
+
+    @Test
+    void requiresWholeKeywordNotJustAllTerms() {
+        rebuild(List.of(
+                station(1, "S1", "平顶山充电站", "新华区", OPERATING),
+                // 含有"充电"和"电站"两个词项，但不含"充电站"
+                station(2, "S2", "电站充电桩", "卫东区", OPERATING),
+                station(3, "S3", "加油站", "湛河区充电站旁", OPERATING)));
+
+        assertEquals(List.of("S1", "S3"), ids(index.search("充电站", OPERATING, null, null, 10)));
+        assertEquals(List.of(), ids(index.search("充电站点", OPERATING, null, null, 10)));
+    }
+
+    @Test
+    void caseInsensitiveAndKeepsWhitespaceLikeLike() {
+        rebuild(List.of(
+                station(1, "S1", "Tesla Supercharger", "", OPERATING),
+                station(2, "S2", "TeslaSupercharger", "", OPERATING)));
+
+        assertEquals(List.of("S1"), ids(index.search("a s", OPERATING, null, null, 10)));
+        assertEquals(List.of("S2"), ids(index.search("ASU", OPERATING, null, null, 10)));
+        assertEquals(2, index.search("tesla", OPERATING, null, null, 10).getTotal());
+    }
+
+    @Test
+    void filtersByStatus() {
+        rebuild(List.of(
+                station(1, "S1", "东站充电站", "", OPERATING),
+                station(2, "S2", "西站充电站", "", CLOSED)));
+
+        assertEquals(List.of("S1"), ids(index.search("充电", OPERATING, null, null, 10)));
+        assertEquals(List.of("S2"), ids(index.search("充电", CLOSED, null, null, 10)));
+        assertEquals(List.of("S1"), ids(index.search("", OPERATING, null, null, 10)));
+    }
+
+    @Test
+    void nameOutranksAddressAndDistanceDecays() {
+        rebuild(List.of(
+                station(1, "S1", "停车场", "充电大道", OPERATING),
+                station(2, "S2", "充电站", "", OPERATING),
+                located(station(3, "S3", "充电中心", "", OPERATING), 33.75, 113.20),
+                located(station(4, "S4", "充电广场", "", OPERATING), 33.80, 113.30)));
+
+        // 名称权重高于地址，得分相同按主键
+        assertEquals(List.of("S2", "S3", "S4", "S1"), ids(index.search("充电", OPERATING, null, null, 10)));
+        // 传入位置时近的在前，无坐标的按最远处理
+        assertEquals(List.of("S4", "S3", "S1", "S2"), ids(index.search("充电", OPERATING, 33.80, 113.30, 10)));
+    }
+
+    @Test
+    void heapTruncationKeepsTopAndFullTotal() {
+        Random random = new Random(11);
+        String alphabet = "充电站桩快慢";
+        List<ChargingStation> list = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            ChargingStation station = station(i + 1, "S" + i, randomText(random, alphabet), randomText(random, alphabet),
+                    random.nextInt(4) == 0 ? CLOSED : OPERATING);
+            if (random.nextBoolean()) {
+                located(station, 33.5 + random.nextDouble(), 113.0 + random.nextDouble());
+            }
+            list.add(station);
+        }
+        rebuild(list);
+
+        for (String keyword : List.of("充", "充电", "电站桩", "快慢快")) {
+            long expectedTotal = list.stream()
+                    .filter(s -> s.getStationStatus() == OPERATING)
+                    .filter(s -> s.getStationName().contains(keyword) || s.getAddress().contains(keyword))
+                    .count();
+            for (Double latitude : Arrays.asList(null, 33.9)) {
+                Double longitude = latitude == null ? null : 113.4;
+                StationSearchIndex.SearchResult all = index.search(keyword, OPERATING, latitude, longitude, list.size());
+                StationSearchIndex.SearchResult top = index.search(keyword, OPERATING, latitude, longitude, 10);
+
+                assertEquals(expectedTotal, all.getTotal(), keyword);
+                assertEquals(expectedTotal, all.getStations().size(), keyword);
+                assertEquals(expectedTotal, top.getTotal(), keyword);
+                assertEquals(ids(all.getStations()).subList(0, Math.min(10, all.getStations().size())),
+                        ids(top.getStations()), keyword);
+                assertEquals(expectedTotal, index.search(keyword, OPERATING, latitude, longitude, 0).getTotal());
+            }
+        }
+    }
+
+    private static String randomText(Random random, String alphabet) {
+        int length = 2 + random.nextInt(6);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+
+    private void rebuild(List<ChargingStation> list) {
+        when(stationMapper.selectList(any())).thenReturn(list);
+        index.rebuild();
+    }
+
+    private static ChargingStation station(long id, String stationId, String name, String address, int status) {
+        ChargingStation station = new ChargingStation();
+        station.setId(id);
+        station.setStationId(stationId);
+        station.setStationName(name);
+        station.setAddress(address);
+        station.setStationStatus(status);
+        return station;
+    }
+
+    private static ChargingStation located(ChargingStation station, double latitude, double longitude) {
+        station.setLatitude(BigDecimal.valueOf(latitude));
+        station.setLongitude(BigDecimal.valueOf(longitude));
+        return station;
+    }
+
+    private static List<String> ids(StationSearchIndex.SearchResult result) {
+        return ids(result.getStations());
+    }
+
+    private static List<String> ids(List<ChargingStation> stations) {
+        return stations.stream().map(ChargingStation::getStationId).collect(Collectors.toList());
+    }
+}
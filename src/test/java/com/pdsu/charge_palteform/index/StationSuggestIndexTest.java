@@ -0,0 +1,119 @@
+package com.pdsu.charge_palteform.index;
+
+import com.pdsu.charge_palteform.entity.ChargingStation;
+import com.pdsu.charge_palteform.mapper.ChargingStationMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StationSuggestIndexTest {
+
+    private final ChargingStationMapper stationMapper = mock(ChargingStationMapper.class);
+    private final StationSuggestIndex index = new StationSuggestIndex(stationMapper);
+
+    @Test
+    void matchesHanziFullPinyinAndInitials() {
+        rebuild(List.of(station("S1", "平顶山学院充电站", "新华区"), station("S2", "郑州东站充电站", "金水区")));
+
+        assertEquals(List.of("S1"), ids(index.suggest("平顶山", 10)));
+        assertEquals(List.of("S1"), ids(index.suggest("pingding", 10)));
+        assertEquals(List.of("S1"), ids(index.suggest("PDS", 10)));
+        assertEquals(List.of("S2"), ids(index.suggest("zz", 10)));
+        assertEquals(List.of(), ids(index.suggest("xyz", 10)));
+    }
+
+    @Test
+    void ranksNameBeforeAddressAndShorterFirst() {
+        rebuild(List.of(
+                station("S1", "other", "abc road"),
+                station("S2", "abcdefgh", "x"),
+                station("S3", "abcd", "y")));
+
+        assertEquals(List.of("S3", "S2", "S1"), ids(index.suggest("abc", 10)));
+        assertEquals(List.of("S3", "S2", "S1"), ids(index.suggest("ab", 10)));
+        assertEquals(List.of("S3"), ids(index.suggest("abc", 1)));
+    }
+
+    @Test
+    void longPrefixFindsBestStationPastManyEarlierKeys() {
+        List<ChargingStation> list = new ArrayList<>();
+        for (int i = 0; i < 6000; i++) {
+            list.add(station("L" + i, String.format("abca%05d-long-name", i), "x"));
+        }
+        // 字典序排在所有长词条之后，但排序值最小
+        list.add(station("BEST", "abcz", "x"));
+        rebuild(list);
+
+        assertEquals("BEST", ids(index.suggest("abc", 5)).get(0));
+    }
+
+    @Test
+    void longPrefixMatchesBruteForceRanking() {
+        Random random = new Random(42);
+        List<ChargingStation> list = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            list.add(station("S" + i, randomText(random), randomText(random)));
+        }
+        rebuild(list);
+
+        for (String prefix : List.of("abc", "aab", "cba", "bbbb", "acab", "ccc")) {
+            for (int limit : new int[]{1, 7, StationSuggestIndex.MAX_LIMIT}) {
+                assertEquals(bruteForce(list, prefix, limit), ids(index.suggest(prefix, limit)),
+                        "prefix=" + prefix + ", limit=" + limit);
+            }
+        }
+    }
+
+    private static List<String> bruteForce(List<ChargingStation> list, String prefix, int limit) {
+        Map<String, Integer> best = new LinkedHashMap<>();
+        for (ChargingStation station : list) {
+            Integer rank = null;
+            if (station.getStationName().startsWith(prefix)) {
+                rank = station.getStationName().length();
+            } else if (station.getAddress().startsWith(prefix)) {
+                rank = 1_000_000 + station.getAddress().length();
+            }
+            if (rank != null) {
+                best.put(station.getStationId(), rank);
+            }
+        }
+        // 排序稳定，排序值相同时保持列表顺序
+        return best.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue())
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private static String randomText(Random random) {
+        int length = 3 + random.nextInt(8);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + random.nextInt(3)));
+        }
+        return sb.toString();
+    }
+
+    private void rebuild(List<ChargingStation> list) {
+        when(stationMapper.selectList(any())).thenReturn(list);
+        index.rebuild();
+    }
+
+    private static ChargingStation station(String stationId, String name, String address) {
+        ChargingStation station = new ChargingStation();
+        station.setStationId(stationId);
+        station.setStationName(name);
+        station.setAddress(address);
+        return station;
+    }
+
+    private static List<String> ids(List<ChargingStation> stations) {
+        return stations.stream().map(ChargingStation::getStationId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,100 @@
+package com.pdsu.charge_palteform.service.impl;
+
+import com.pdsu.charge_palteform.entity.ChargingStation;
+import com.pdsu.charge_palteform.exception.BusinessException;
+import com.pdsu.charge_palteform.index.StationGeoIndex;
+import com.pdsu.charge_palteform.service.impl.ChargingStationServiceImpl.NearbyCursor;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NearbyCursorTest {
+
+    private static final ToDoubleFunction<StationGeoIndex.Hit> DISTANCE = StationGeoIndex.Hit::getDistance;
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        NearbyCursor cursor = new NearbyCursor(1234.5678, "ST,001");
+        NearbyCursor decoded = NearbyCursor.decode(cursor.encode());
+
+        assertEquals(1234.5678, decoded.getSortKey());
+        assertEquals("ST,001", decoded.getStationId());
+    }
+
+    @Test
+    void invalidTokenIsRejected() {
+        assertThrows(BusinessException.class, () -> NearbyCursor.decode("not-a-cursor"));
+        assertThrows(BusinessException.class, () -> NearbyCursor.decode("!!!"));
+    }
+
+    @Test
+    void nonFiniteSortKeyIsRejected() {
+        for (String raw : new String[]{"NaN,S1", "Infinity,S1", "-Infinity,S1"}) {
+            String token = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+            assertThrows(BusinessException.class, () -> NearbyCursor.decode(token), raw);
+        }
+    }
+
+    @Test
+    void pagesNeverSkipOrRepeatWithTiedDistances() {
+        Random random = new Random(7);
+        List<StationGeoIndex.Hit> hits = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            // 距离只取少数几个值，制造大量并列
+            hits.add(hit(String.format("S%03d", random.nextInt(1000)) + "-" + i, random.nextInt(5) * 100.0));
+        }
+        hits.sort(Comparator.comparingDouble(DISTANCE).thenComparing(hit -> hit.getStation().getStationId()));
+        List<String> expected = ids(hits);
+
+        for (int pageSize : new int[]{1, 3, 7, 50, 200, 500}) {
+            assertEquals(expected, pageThrough(hits, pageSize), "pageSize=" + pageSize);
+        }
+    }
+
+    @Test
+    void cursorStationRemovedBetweenPages() {
+        List<StationGeoIndex.Hit> hits = new ArrayList<>(List.of(
+                hit("A", 10), hit("B", 20), hit("C", 20), hit("D", 20), hit("E", 30)));
+        String token = NearbyCursor.after(hits.subList(0, 3), DISTANCE);
+
+        // 上一页最后一条在两次请求之间被删除
+        hits.removeIf(hit -> hit.getStation().getStationId().equals("C"));
+        int from = NearbyCursor.decode(token).positionIn(hits, DISTANCE);
+
+        assertEquals(List.of("D", "E"), ids(hits.subList(from, hits.size())));
+    }
+
+    @Test
+    void emptyPageHasNoCursor() {
+        assertNull(NearbyCursor.after(List.of(), DISTANCE));
+    }
+
+    private static List<String> pageThrough(List<StationGeoIndex.Hit> hits, int pageSize) {
+        List<String> seen = new ArrayList<>();
+        String token = null;
+        do {
+            int from = token == null ? 0 : NearbyCursor.decode(token).positionIn(hits, DISTANCE);
+            int to = Math.min(from + pageSize, hits.size());
+            List<StationGeoIndex.Hit> page = hits.subList(from, to);
+            seen.addAll(ids(page));
+            token = to < hits.size() ? NearbyCursor.after(page, DISTANCE) : null;
+        } while (token != null);
+        return seen;
+    }
+
+    private static StationGeoIndex.Hit hit(String stationId, double distance) {
+        ChargingStation station = new ChargingStation();
+        station.setStationId(stationId);
+        return new StationGeoIndex.Hit(station, distance);
+    }
+
+    private static List<String> ids(List<StationGeoIndex.Hit> hits) {
+        return hits.stream().map(hit -> hit.getStation().getStationId()).collect(Collectors.toList());
+    }
+}
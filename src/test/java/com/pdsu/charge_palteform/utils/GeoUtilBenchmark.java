@@ -0,0 +1,92 @@
+package com.pdsu.charge_palteform.utils;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 距离计算基准测试：原BigDecimal逐条计算 vs double数组批量计算
+ * <p>
+ * 运行方式：mvn test-compile 后直接执行 main 方法
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoUtilBenchmark {
+
+    @Param({"50", "1000"})
+    private int size;
+
+    private final BigDecimal userLat = new BigDecimal("34.7466");
+    private final BigDecimal userLng = new BigDecimal("113.6253");
+
+    private BigDecimal[] stationLats;
+    private BigDecimal[] stationLngs;
+    private double[] lats;
+    private double[] lngs;
+    private double[] out;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        stationLats = new BigDecimal[size];
+        stationLngs = new BigDecimal[size];
+        lats = new double[size];
+        lngs = new double[size];
+        out = new double[size];
+        for (int i = 0; i < size; i++) {
+            stationLats[i] = userLat.add(BigDecimal.valueOf(random.nextDouble() - 0.5)).setScale(7, RoundingMode.HALF_UP);
+            stationLngs[i] = userLng.add(BigDecimal.valueOf(random.nextDouble() - 0.5)).setScale(7, RoundingMode.HALF_UP);
+            lats[i] = stationLats[i].doubleValue();
+            lngs[i] = stationLngs[i].doubleValue();
+        }
+    }
+
+    @Benchmark
+    public void bigDecimalPerStation(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(legacyDistance(userLat, userLng, stationLats[i], stationLngs[i]));
+        }
+    }
+
+    @Benchmark
+    public double[] primitiveBatch() {
+        GeoUtil.distancesKm(userLat.doubleValue(), userLng.doubleValue(), lats, lngs, out, size);
+        return out;
+    }
+
+    /**
+     * 优化前 ChargingStationServiceImpl.calculateDistance 的实现
+     */
+    private static BigDecimal legacyDistance(BigDecimal lat1, BigDecimal lng1, BigDecimal lat2, BigDecimal lng2) {
+        double radLat1 = Math.toRadians(lat1.doubleValue());
+        double radLat2 = Math.toRadians(lat2.doubleValue());
+        double deltaLat = Math.toRadians(lat2.subtract(lat1).doubleValue());
+        double deltaLng = Math.toRadians(lng2.subtract(lng1).doubleValue());
+
+        double a = Math.sin(deltaLat / 2) * Math.sin(deltaLat / 2) +
+                Math.cos(radLat1) * Math.cos(radLat2) *
+                        Math.sin(deltaLng / 2) * Math.sin(deltaLng / 2);
+
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return BigDecimal.valueOf(GeoUtil.EARTH_RADIUS_KM * c).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(GeoUtilBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}